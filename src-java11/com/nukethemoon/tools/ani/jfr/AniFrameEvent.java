@@ -0,0 +1,33 @@
+package com.nukethemoon.tools.ani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded for every update of an animation controller.
+ *
+ * @author lucahofmann@gmx.net
+ */
+@Name("com.nukethemoon.ani.AniFrame")
+@Label("Animation Frame")
+@Category("Ani")
+@Description("An update of all animations of a controller")
+@StackTrace(false)
+class AniFrameEvent extends Event {
+
+	@Label("Animation Count")
+	int animationCount;
+
+	@Label("Updated Count")
+	int updatedCount;
+
+	@Label("Started Count")
+	int startedCount;
+
+	@Label("Finished Count")
+	int finishedCount;
+}
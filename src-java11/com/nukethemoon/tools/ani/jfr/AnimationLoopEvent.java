@@ -0,0 +1,35 @@
+package com.nukethemoon.tools.ani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded if an animation starts a new loop.
+ *
+ * @author lucahofmann@gmx.net
+ */
+@Name("com.nukethemoon.ani.AnimationLoop")
+@Label("Animation Loop")
+@Category("Ani")
+@Description("An animation started a new loop")
+@StackTrace(false)
+class AnimationLoopEvent extends Event {
+
+	@Label("Animation Id")
+	int animationId;
+
+	@Label("Animation Class")
+	String animationClass;
+
+	@Label("Animation Duration")
+	@Timespan(Timespan.MILLISECONDS)
+	long durationMillis;
+
+	@Label("Loop Index")
+	int loopIndex;
+}
@@ -0,0 +1,32 @@
+package com.nukethemoon.tools.ani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Recorded if an animation starts.
+ *
+ * @author lucahofmann@gmx.net
+ */
+@Name("com.nukethemoon.ani.AnimationStart")
+@Label("Animation Start")
+@Category("Ani")
+@Description("An animation started")
+@StackTrace(false)
+class AnimationStartEvent extends Event {
+
+	@Label("Animation Id")
+	int animationId;
+
+	@Label("Animation Class")
+	String animationClass;
+
+	@Label("Animation Duration")
+	@Timespan(Timespan.MILLISECONDS)
+	long durationMillis;
+}
@@ -0,0 +1,159 @@
+package com.nukethemoon.tools.ani.jfr;
+
+import com.nukethemoon.tools.ani.AnimationTracer;
+import com.nukethemoon.tools.ani.BaseAnimation;
+
+import jdk.jfr.EventType;
+
+/**
+ * A tracer that records JDK Flight Recorder events for animation controllers and animations.
+ * Install it with {@code controller.setTracer(new JfrTracer())}. One instance can be
+ * shared by several controllers. Events are only created if they are enabled in the
+ * running recording.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class JfrTracer implements AnimationTracer {
+
+	private static final EventType FRAME_TYPE = EventType.getEventType(AniFrameEvent.class);
+	private static final EventType START_TYPE = EventType.getEventType(AnimationStartEvent.class);
+	private static final EventType FINISH_TYPE = EventType.getEventType(AnimationFinishEvent.class);
+	private static final EventType LOOP_TYPE = EventType.getEventType(AnimationLoopEvent.class);
+	private static final EventType LISTENER_TYPE = EventType.getEventType(SlowListenerEvent.class);
+
+	/**
+	 * The maximum depth of nested listener calls that are recorded.
+	 */
+	private static final int MAX_LISTENER_DEPTH = 8;
+
+	/**
+	 * The events in progress of the thread that updates the animations.
+	 */
+	private static class ThreadState {
+		AniFrameEvent frameEvent;
+		final SlowListenerEvent[] listenerEvents = new SlowListenerEvent[MAX_LISTENER_DEPTH];
+		int listenerDepth;
+	}
+
+	private final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+		@Override
+		protected ThreadState initialValue() {
+			return new ThreadState();
+		}
+	};
+
+	/**
+	 * Returns true if Flight Recorder events can be recorded on the running Java version.
+	 * @return true on Java 11 or newer.
+	 */
+	public static boolean isAvailable() {
+		return true;
+	}
+
+	@Override
+	public void trace(int pEvent, BaseAnimation pAnimation, float pValue) {
+		switch (pEvent) {
+			case EVENT_FRAME_BEGIN:
+				if (FRAME_TYPE.isEnabled()) {
+					AniFrameEvent event = new AniFrameEvent();
+					event.animationCount = (int) pValue;
+					event.begin();
+					threadState.get().frameEvent = event;
+				}
+				break;
+			case EVENT_FRAME_END:
+				if (FRAME_TYPE.isEnabled()) {
+					ThreadState state = threadState.get();
+					AniFrameEvent event = state.frameEvent;
+					if (event != null) {
+						event.updatedCount = (int) pValue;
+						event.commit();
+						state.frameEvent = null;
+					}
+				}
+				break;
+			case EVENT_START:
+				countFrameEvent(pEvent);
+				if (START_TYPE.isEnabled()) {
+					AnimationStartEvent event = new AnimationStartEvent();
+					event.animationId = pAnimation.getId();
+					event.animationClass = pAnimation.getClass().getName();
+					event.durationMillis = pAnimation.getDurationMillis();
+					event.commit();
+				}
+				break;
+			case EVENT_FINISH:
+				countFrameEvent(pEvent);
+				if (FINISH_TYPE.isEnabled()) {
+					AnimationFinishEvent event = new AnimationFinishEvent();
+					event.animationId = pAnimation.getId();
+					event.animationClass = pAnimation.getClass().getName();
+					event.durationMillis = pAnimation.getDurationMillis();
+					event.loopCount = pAnimation.getLoopIndex();
+					event.commit();
+				}
+				break;
+			case EVENT_LOOP:
+				if (LOOP_TYPE.isEnabled()) {
+					AnimationLoopEvent event = new AnimationLoopEvent();
+					event.animationId = pAnimation.getId();
+					event.animationClass = pAnimation.getClass().getName();
+					event.durationMillis = pAnimation.getDurationMillis();
+					event.loopIndex = (int) pValue;
+					event.commit();
+				}
+				break;
+			case EVENT_LISTENER_BEGIN:
+				if (LISTENER_TYPE.isEnabled()) {
+					ThreadState state = threadState.get();
+					if (state.listenerDepth < MAX_LISTENER_DEPTH) {
+						SlowListenerEvent event = new SlowListenerEvent();
+						event.animationId = pAnimation.getId();
+						event.animationClass = pAnimation.getClass().getName();
+						event.listenerIndex = (int) pValue;
+						event.begin();
+						state.listenerEvents[state.listenerDepth] = event;
+					}
+					state.listenerDepth++;
+				}
+				break;
+			case EVENT_LISTENER_END:
+				if (LISTENER_TYPE.isEnabled()) {
+					ThreadState state = threadState.get();
+					if (state.listenerDepth > 0) {
+						state.listenerDepth--;
+						if (state.listenerDepth < MAX_LISTENER_DEPTH) {
+							SlowListenerEvent event = state.listenerEvents[state.listenerDepth];
+							state.listenerEvents[state.listenerDepth] = null;
+							if (event != null) {
+								event.end();
+								if (event.shouldCommit()) {
+									event.commit();
+								}
+							}
+						}
+					}
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Counts starts and finishes for the frame event in progress.
+	 */
+	private void countFrameEvent(int pEvent) {
+		if (!FRAME_TYPE.isEnabled()) {
+			return;
+		}
+		AniFrameEvent frameEvent = threadState.get().frameEvent;
+		if (frameEvent != null) {
+			if (pEvent == EVENT_START) {
+				frameEvent.startedCount++;
+			} else {
+				frameEvent.finishedCount++;
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.nukethemoon.tools.ani.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded if a finished listener of an animation takes longer than the threshold.
+ * The threshold can be changed in the recording settings.
+ *
+ * @author lucahofmann@gmx.net
+ */
+@Name("com.nukethemoon.ani.SlowListener")
+@Label("Slow Animation Listener")
+@Category("Ani")
+@Description("A finished listener of an animation took longer than the threshold")
+@Threshold("2 ms")
+class SlowListenerEvent extends Event {
+
+	@Label("Animation Id")
+	int animationId;
+
+	@Label("Animation Class")
+	String animationClass;
+
+	@Label("Listener Index")
+	int listenerIndex;
+}
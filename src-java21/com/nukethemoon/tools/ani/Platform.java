@@ -0,0 +1,22 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Access to features that differ between Java versions. Java 21+ version.
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class Platform {
+
+	private Platform() {}
+
+	/**
+	 * Starts a virtual thread for work that mostly waits (e.g. scripts that wait for animations, self-updating controllers).
+	 * Waiting virtual threads do not block a platform thread.
+	 * @param pTask The task to run.
+	 * @param pName The name of the thread.
+	 * @return The started thread.
+	 */
+	static Thread startThread(Runnable pTask, String pName) {
+		return Thread.ofVirtual().name(pName).start(pTask);
+	}
+}
@@ -0,0 +1,154 @@
+package com.nukethemoon.tools.ani;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the setters of properties. Java 9+ version that generates a setter class per
+ * setter method with the LambdaMetafactory, so the JIT can inline the call of the setter.
+ * Fields and setters of classes that are not public use a method handle. The setters
+ * are cached per class and property.
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class PropertySetters {
+
+	/**
+	 * The resolved setters per class by property and type.
+	 */
+	private static final ClassValue<ConcurrentHashMap<String, Object>> setters =
+			new ClassValue<ConcurrentHashMap<String, Object>>() {
+				@Override
+				protected ConcurrentHashMap<String, Object> computeValue(Class<?> pType) {
+					return new ConcurrentHashMap<String, Object>();
+				}
+			};
+
+	private PropertySetters() {
+	}
+
+	static PropertySetter.OfFloat ofFloat(Class<?> pType, String pProperty) {
+		return (PropertySetter.OfFloat) get(pType, pProperty, float.class, PropertySetter.OfFloat.class);
+	}
+
+	static PropertySetter.OfInt ofInt(Class<?> pType, String pProperty) {
+		return (PropertySetter.OfInt) get(pType, pProperty, int.class, PropertySetter.OfInt.class);
+	}
+
+	static PropertySetter.OfDouble ofDouble(Class<?> pType, String pProperty) {
+		return (PropertySetter.OfDouble) get(pType, pProperty, double.class, PropertySetter.OfDouble.class);
+	}
+
+	private static Object get(Class<?> pType, String pProperty, Class<?> pValueType, Class<?> pSetterType) {
+		ConcurrentHashMap<String, Object> classSetters = setters.get(pType);
+		String key = pProperty + ':' + pValueType.getName();
+		Object setter = classSetters.get(key);
+		if (setter == null) {
+			setter = resolve(pType, pProperty, pValueType, pSetterType);
+			Object existing = classSetters.putIfAbsent(key, setter);
+			if (existing != null) {
+				setter = existing;
+			}
+		}
+		return setter;
+	}
+
+	private static Object resolve(Class<?> pType, String pProperty, Class<?> pValueType, Class<?> pSetterType) {
+		AccessibleObject accessor = PropertyAnimation.findAccessor(pType, pProperty, pValueType);
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		try {
+			if (accessor instanceof Method) {
+				Method method = (Method) accessor;
+				MethodHandle handle = lookup.unreflect(method);
+				if (canGenerate(method)) {
+					try {
+						// drops the return value of fluent setters
+						return LambdaMetafactory.metafactory(lookup, "set",
+								MethodType.methodType(pSetterType),
+								MethodType.methodType(void.class, Object.class, pValueType),
+								handle,
+								MethodType.methodType(void.class, method.getDeclaringClass(), pValueType))
+								.getTarget().invoke();
+					} catch (Throwable t) {
+						// use the method handle
+					}
+				}
+				return new HandleSetter(handle.asType(MethodType.methodType(void.class, Object.class, pValueType)));
+			}
+			MethodHandle handle = lookup.unreflectSetter((Field) accessor);
+			return new HandleSetter(handle.asType(MethodType.methodType(void.class, Object.class, pValueType)));
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("The property " + pProperty + " of " + pType.getName()
+					+ " is not accessible.", e);
+		}
+	}
+
+	/**
+	 * Returns true if a generated class in this package can call the method.
+	 */
+	private static boolean canGenerate(Method pMethod) {
+		if (!Modifier.isPublic(pMethod.getModifiers())) {
+			return false;
+		}
+		for (Class<?> type = pMethod.getDeclaringClass(); type != null; type = type.getEnclosingClass()) {
+			if (!Modifier.isPublic(type.getModifiers())) {
+				return false;
+			}
+		}
+		// the generated class resolves the declaring class with the class loader of this class
+		Class<?> declaringClass = pMethod.getDeclaringClass();
+		try {
+			return Class.forName(declaringClass.getName(), false, PropertySetters.class.getClassLoader())
+					== declaringClass;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Sets a property with a method handle of the type (Object, value type)void.
+	 */
+	private static final class HandleSetter
+			implements PropertySetter.OfFloat, PropertySetter.OfInt, PropertySetter.OfDouble {
+
+		private final MethodHandle handle;
+
+		private HandleSetter(MethodHandle pHandle) {
+			handle = pHandle;
+		}
+
+		@Override
+		public void set(Object pTarget, float pValue) {
+			try {
+				handle.invokeExact(pTarget, pValue);
+			} catch (Throwable t) {
+				throw PropertyAnimation.rethrow(t);
+			}
+		}
+
+		@Override
+		public void set(Object pTarget, int pValue) {
+			try {
+				handle.invokeExact(pTarget, pValue);
+			} catch (Throwable t) {
+				throw PropertyAnimation.rethrow(t);
+			}
+		}
+
+		@Override
+		public void set(Object pTarget, double pValue) {
+			try {
+				handle.invokeExact(pTarget, pValue);
+			} catch (Throwable t) {
+				throw PropertyAnimation.rethrow(t);
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.nukethemoon.tools.ani;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A long value written by one thread and read by others (e.g. the frame time read
+ * by render threads). Java 9+ version with release stores and acquire loads.
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class PublishedLong {
+
+	private static final VarHandle VALUE;
+
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(PublishedLong.class, "value", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private long value;
+
+	long get() {
+		return (long) VALUE.getAcquire(this);
+	}
+
+	void set(long pValue) {
+		VALUE.setRelease(this, pValue);
+	}
+}
@@ -1,7 +1,18 @@
 package com.nukethemoon.tools.ani;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * A controller to add and update animations.
@@ -10,6 +21,18 @@ import java.util.TimerTask;
  */
 public class Ani {
 
+	/**
+	 * Marks the start of a snapshot written by writeSnapshot.
+	 */
+	private static final int SNAPSHOT_MAGIC = 0x414E4953;
+
+	private static final int SNAPSHOT_VERSION = 1;
+
+	/**
+	 * Marks the end of the animations of a snapshot.
+	 */
+	private static final int SNAPSHOT_END = -1;
+
 	/**
 	 * The global time factor used for all animations.
 	 */
@@ -20,40 +43,149 @@ public class Ani {
 	 */
 	private final BaseAnimation[] animations;
 
+	/**
+	 * The tracer of this controller and its animations or null.
+	 */
+	private AnimationTracer tracer = null;
+
+	/**
+	 * The count of animations in the animations array.
+	 */
+	private int animationCount = 0;
+
+	/**
+	 * The animations by their target.
+	 */
+	private final Map<Object, List<BaseAnimation>> targetIndex = new IdentityHashMap<Object, List<BaseAnimation>>();
+
+	/**
+	 * The animations by their tags.
+	 */
+	private final Map<String, List<BaseAnimation>> tagIndex = new HashMap<String, List<BaseAnimation>>();
+
+	/**
+	 * The running animation of each animated target property.
+	 */
+	private final Map<ConflictKey, BaseAnimation> conflictIndex = new HashMap<ConflictKey, BaseAnimation>();
+
+	/**
+	 * The maximum count of empty groups and free conflict entries that are kept in the
+	 * indexes. They are reused if the key is added again, so re-adding animations does not allocate.
+	 */
+	private static final int MAX_VACANT_ENTRIES = 64;
+
+	/**
+	 * The count of empty groups and free conflict entries in the indexes.
+	 */
+	private int vacantEntries = 0;
+
+	/**
+	 * Handles animations added for a target property that is already animated.
+	 */
+	private ConflictPolicy conflictPolicy = ConflictPolicy.REPLACE;
+
 
 	private AnimationFinishedListener allAnimationsFinishedListener;
 
 	/**
-	 * A time to schedule animation updates or null.
+	 * The thread that updates this controller every interval or null.
 	 */
-	private Timer timer = null;
+	private Thread updateThread = null;
 
 	private boolean enabled = true;
 
+	/**
+	 * The clock used to time all animations of this controller.
+	 */
+	private final AnimationClock clock;
+
+	/**
+	 * The clock the animations read their time from. Differs from the controller
+	 * clock in the fixed time step mode.
+	 */
+	private AnimationClock animationClock;
+
+	/**
+	 * The clock advanced by the fixed time steps or null if the mode is disabled.
+	 */
+	private ManualClock stepClock = null;
+	private int fixedStepMillis;
+	private int maxCatchUpSteps;
+	private long accumulatedMillis;
+	private long timeLastUpdate;
+
+	/**
+	 * The time of the animations at the last update.
+	 */
+	private final PublishedLong frameTimeMillis = new PublishedLong();
+
+	/**
+	 * Tasks of other threads to run at the start of the next update.
+	 */
+	private final ConcurrentLinkedQueue<Runnable> postedTasks = new ConcurrentLinkedQueue<Runnable>();
+
+	/**
+	 * The channels that are applied at the end of every frame.
+	 */
+	private BlendChannel[] blendChannels = new BlendChannel[4];
+	private int blendChannelCount = 0;
+
+	/**
+	 * Receives the references of weak targets that were garbage collected.
+	 */
+	private final ReferenceQueue<Object> collectedTargets = new ReferenceQueue<Object>();
+
+	/**
+	 * A clock that returns the time of the last update.
+	 */
+	private final AnimationClock frameClock = new AnimationClock() {
+		@Override
+		public long getTimeMillis() {
+			return frameTimeMillis.get();
+		}
+	};
+
 	/**
 	 * Creates a new animation controller. Use this if you want to update animations
 	 * on your own (e.g. every render frame)
 	 *
 	 */
 	public Ani() {
+		this(AnimationClock.SYSTEM);
+	}
+
+	/**
+	 * Creates a new animation controller that reads its time from the assigned clock.
+	 * Use a {@link ManualClock} to simulate animations without waiting for the real time.
+	 * @param pClock The clock to use.
+	 */
+	public Ani(AnimationClock pClock) {
 		animations = new BaseAnimation[200];
+		clock = pClock != null ? pClock : AnimationClock.SYSTEM;
+		animationClock = clock;
+		frameTimeMillis.set(clock.getTimeMillis());
 	}
 
 	/**
 	 * Creates a new animation controller. Updates it self
-	 * every pInterval milliseconds.
+	 * every pInterval milliseconds on a daemon thread (a virtual thread on Java 21+).
 	 * @param pInterval The update interval in milliseconds.
 	 */
-	public Ani(int pInterval) {
+	public Ani(final int pInterval) {
 		this();
-		timer = new Timer();
-		TimerTask timerTask = new TimerTask() {
+		updateThread = Platform.startThread(new Runnable() {
 			@Override
 			public void run() {
-				update();
+				try {
+					while (true) {
+						Thread.sleep(pInterval);
+						update();
+					}
+				} catch (InterruptedException e) {
+					// stopped
+				}
 			}
-		};
-		timer.schedule(timerTask, pInterval, pInterval);
+		}, "Ani update");
 	}
 
 	/**
@@ -63,23 +195,284 @@ public class Ani {
 	 * @return This instance.
 	 */
 	public final Ani add(final BaseAnimation pAnimation) {
+		return add(pAnimation, conflictPolicy);
+	}
+
+	/**
+	 * Adds an animation. If another animation with the same conflict key is running
+	 * the assigned policy is used. See {@link BaseAnimation#setConflictKey(Object, String)}.
+	 *
+	 * @param pAnimation The animation to add.
+	 * @param pConflictPolicy The policy to use for conflicting animations.
+	 * @return This instance.
+	 */
+	public final Ani add(final BaseAnimation pAnimation, final ConflictPolicy pConflictPolicy) {
 		if (!enabled) {
+			callCancelledListener(pAnimation);
 			return this;
 		}
-		if (pAnimation != null) {
-			for (int i = 0; i < animations.length; i++) {
-				if (animations[i] == null) {
-					if (pAnimation.getTimeStartPlaned() == -1 && !pAnimation.hasStarted()) {
-						pAnimation.start();
+		if (pAnimation != null && pAnimation.getConflictKey() != null) {
+			BaseAnimation runningAnimation = conflictIndex.get(pAnimation.getConflictKey());
+			if (runningAnimation != null && runningAnimation != pAnimation) {
+				if (pAnimation.queued) {
+					if (pConflictPolicy != ConflictPolicy.REPLACE) {
+						// already waiting, it is added when its turn comes
+						return this;
 					}
-					animations[i] = pAnimation;
+					// it replaces the running animation and must not be dropped with its queue
+					unqueue(runningAnimation, pAnimation);
+				}
+				if (pConflictPolicy == ConflictPolicy.IGNORE) {
+					callCancelledListener(pAnimation);
 					return this;
 				}
+				if (pConflictPolicy == ConflictPolicy.QUEUE) {
+					enqueue(runningAnimation, pAnimation);
+					return this;
+				}
+				cancel(runningAnimation);
+			}
+		}
+		if (pAnimation == null || getIndexOf(pAnimation) != -1) {
+			return this;
+		}
+		for (int i = 0; i < animations.length; i++) {
+			if (animations[i] == null) {
+				if (pAnimation.hasWeakTarget() && !pAnimation.registerWeakTarget(collectedTargets)) {
+					// the target is already gone
+					callCancelledListener(pAnimation);
+					return this;
+				}
+				pAnimation.controller = this;
+				pAnimation.setClock(animationClock);
+				if (pAnimation.getTimeStartPlaned() == -1 && !pAnimation.hasStarted()) {
+					pAnimation.start();
+				}
+				putAt(i, pAnimation);
+				return this;
+			}
+		}
+		// all slots are used
+		callCancelledListener(pAnimation);
+		return this;
+	}
+
+	private static void callCancelledListener(BaseAnimation pAnimation) {
+		if (pAnimation != null && pAnimation.cancelledListener != null) {
+			pAnimation.cancelledListener.onAnimationFinished(pAnimation);
+		}
+	}
+
+	/**
+	 * Appends an animation and the animations queued behind it to the queue of a running
+	 * animation. Animations that already wait in a queue are ignored.
+	 */
+	private void enqueue(BaseAnimation pRunning, BaseAnimation pAnimation) {
+		if (pAnimation.queued) {
+			return;
+		}
+		BaseAnimation tail = pRunning.queueTail != null ? pRunning.queueTail : pRunning;
+		tail.queuedAnimation = pAnimation;
+		pRunning.queueTail = pAnimation.queueTail != null ? pAnimation.queueTail : pAnimation;
+		pAnimation.queueTail = null;
+		pAnimation.queued = true;
+	}
+
+	/**
+	 * Takes the first animation of the queue of a removed animation. The rest of
+	 * the queue waits behind the returned animation.
+	 * @return The first queued animation or null.
+	 */
+	private static BaseAnimation dequeue(BaseAnimation pAnimation) {
+		BaseAnimation next = pAnimation.queuedAnimation;
+		if (next != null) {
+			next.queueTail = pAnimation.queueTail != next ? pAnimation.queueTail : null;
+			next.queued = false;
+			pAnimation.queuedAnimation = null;
+			pAnimation.queueTail = null;
+		}
+		return next;
+	}
+
+	/**
+	 * Takes an animation out of the queue of a running animation without notifying it.
+	 */
+	private static void unqueue(BaseAnimation pRunning, BaseAnimation pAnimation) {
+		BaseAnimation previous = pRunning;
+		while (previous.queuedAnimation != null && previous.queuedAnimation != pAnimation) {
+			previous = previous.queuedAnimation;
+		}
+		if (previous.queuedAnimation == null) {
+			return;
+		}
+		previous.queuedAnimation = pAnimation.queuedAnimation;
+		if (pRunning.queueTail == pAnimation) {
+			pRunning.queueTail = previous != pRunning ? previous : null;
+		}
+		pAnimation.queuedAnimation = null;
+		pAnimation.queued = false;
+	}
+
+	/**
+	 * Drops the queue of an animation. The dropped animations can be added again.
+	 */
+	private static void dropQueue(BaseAnimation pAnimation) {
+		BaseAnimation next = dequeue(pAnimation);
+		while (next != null) {
+			BaseAnimation dropped = next;
+			next = dequeue(dropped);
+			callCancelledListener(dropped);
+		}
+	}
+
+	/**
+	 * Puts an animation into a free slot and adds it to the indexes.
+	 */
+	private void putAt(int pSlot, BaseAnimation pAnimation) {
+		animations[pSlot] = pAnimation;
+		pAnimation.controller = this;
+		pAnimation.controllerSlot = pSlot;
+		animationCount++;
+		if (pAnimation.getTarget() != null && !pAnimation.hasWeakTarget()) {
+			addToIndex(targetIndex, pAnimation.getTarget(), pAnimation);
+		}
+		String[] tags = pAnimation.getTags();
+		for (int i = 0; i < pAnimation.getTagCount(); i++) {
+			addToIndex(tagIndex, tags[i], pAnimation);
+		}
+		ConflictKey conflictKey = pAnimation.getConflictKey();
+		if (conflictKey != null) {
+			if (conflictIndex.containsKey(conflictKey) && conflictIndex.get(conflictKey) == null) {
+				vacantEntries--;
 			}
+			conflictIndex.put(conflictKey, pAnimation);
 		}
+	}
+
+	/**
+	 * Removes the animation of a slot and removes it from the indexes.
+	 */
+	private void removeAt(int pSlot) {
+		BaseAnimation animation = animations[pSlot];
+		animations[pSlot] = null;
+		animation.controllerSlot = -1;
+		animationCount--;
+		if (animation.getTarget() != null && !animation.hasWeakTarget()) {
+			removeFromIndex(targetIndex, animation.getTarget(), animation);
+		}
+		String[] tags = animation.getTags();
+		for (int i = 0; i < animation.getTagCount(); i++) {
+			removeFromIndex(tagIndex, tags[i], animation);
+		}
+		ConflictKey conflictKey = animation.getConflictKey();
+		if (conflictKey != null && conflictIndex.get(conflictKey) == animation) {
+			// keep the entry to not allocate a new one if the property gets animated again
+			conflictIndex.put(conflictKey, null);
+			vacantEntries++;
+		}
+		if (vacantEntries > MAX_VACANT_ENTRIES) {
+			removeVacantEntries();
+		}
+		animation.endRun();
+	}
+
+	/**
+	 * Adds a channel that blends the layers of animations. The channel is applied
+	 * once per call of {@link #update()} after all animations were updated.
+	 * A channel is added automatically when the first layer of it is updated by this controller.
+	 * @param pChannel The channel to add.
+	 * @return This instance.
+	 * @throws IllegalStateException If the channel was added to another controller.
+	 */
+	public Ani addBlendChannel(BlendChannel pChannel) {
+		if (pChannel.controller == this) {
+			return this;
+		}
+		if (pChannel.controller != null) {
+			throw new IllegalStateException("The channel was added to another controller.");
+		}
+		pChannel.controller = this;
+		pChannel.detached = false;
+		if (blendChannelCount == blendChannels.length) {
+			blendChannels = Arrays.copyOf(blendChannels, blendChannelCount * 2);
+		}
+		blendChannels[blendChannelCount++] = pChannel;
 		return this;
 	}
 
+	/**
+	 * Removes a channel. Its listener is not called anymore and its layers are dropped.
+	 * Running layers do not add the channel again, use {@link #addBlendChannel(BlendChannel)} for that.
+	 * @param pChannel The channel to remove.
+	 * @return True if the channel was found.
+	 */
+	public boolean removeBlendChannel(BlendChannel pChannel) {
+		for (int i = 0; i < blendChannelCount; i++) {
+			if (blendChannels[i] == pChannel) {
+				pChannel.controller = null;
+				pChannel.detached = true;
+				pChannel.removeLayers();
+				System.arraycopy(blendChannels, i + 1, blendChannels, i, blendChannelCount - i - 1);
+				blendChannels[--blendChannelCount] = null;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private <K> void addToIndex(Map<K, List<BaseAnimation>> pIndex, K pKey, BaseAnimation pAnimation) {
+		List<BaseAnimation> group = pIndex.get(pKey);
+		if (group == null) {
+			group = new ArrayList<BaseAnimation>(4);
+			pIndex.put(pKey, group);
+		} else if (group.isEmpty()) {
+			vacantEntries--;
+		}
+		group.add(pAnimation);
+	}
+
+	private <K> void removeFromIndex(Map<K, List<BaseAnimation>> pIndex, K pKey, BaseAnimation pAnimation) {
+		List<BaseAnimation> group = pIndex.get(pKey);
+		if (group == null) {
+			return;
+		}
+		// search from the end since groups are usually removed from the end
+		for (int i = group.size() - 1; i >= 0; i--) {
+			if (group.get(i) == pAnimation) {
+				group.remove(i);
+				// an empty group stays in the index to be reused
+				if (group.isEmpty()) {
+					vacantEntries++;
+				}
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Removes the empty groups and free conflict entries from the indexes.
+	 */
+	private void removeVacantEntries() {
+		removeEmptyGroups(targetIndex);
+		removeEmptyGroups(tagIndex);
+		Iterator<BaseAnimation> conflicts = conflictIndex.values().iterator();
+		while (conflicts.hasNext()) {
+			if (conflicts.next() == null) {
+				conflicts.remove();
+			}
+		}
+		vacantEntries = 0;
+	}
+
+	private static <K> void removeEmptyGroups(Map<K, List<BaseAnimation>> pIndex) {
+		Iterator<List<BaseAnimation>> groups = pIndex.values().iterator();
+		while (groups.hasNext()) {
+			if (groups.next().isEmpty()) {
+				groups.remove();
+			}
+		}
+	}
+
 	/**
 	 * Adds an animation with a start delay.
 	 *
@@ -92,7 +485,8 @@ public class Ani {
 			return this;
 		}
 		if (pStartDelayMillis > 0) {
-			pAnimation.setTimeStartPlaned(System.currentTimeMillis() + pStartDelayMillis);
+			pAnimation.setClock(animationClock);
+			pAnimation.setTimeStartPlaned(animationClock.getTimeMillis() + pStartDelayMillis);
 		}
 		add(pAnimation);
 		return this;
@@ -186,6 +580,7 @@ public class Ani {
 	/**
 	 * Calls the animation update method or removes the animation if it is done.
 	 * It also calls the "AnimationFinishListener" of the animation if it is done.
+	 * In the fixed time step mode the animations are updated once per passed step.
 	 *
 	 * @return False if no animation has been handled.
 	 */
@@ -194,47 +589,254 @@ public class Ani {
 		if (!enabled) {
 			return false;
 		}
+		Runnable task;
+		while ((task = postedTasks.poll()) != null) {
+			task.run();
+		}
+		cancelCollectedTargets();
+		if (stepClock == null) {
+			boolean didHandleAnimation = updateAnimations();
+			applyBlendChannels();
+			return didHandleAnimation;
+		}
+
+		long now = clock.getTimeMillis();
+		accumulatedMillis += Math.max(0, now - timeLastUpdate);
+		timeLastUpdate = now;
 
 		boolean didHandleAnimation = false;
+		int steps = 0;
+		while (accumulatedMillis >= fixedStepMillis) {
+			if (steps == maxCatchUpSteps) {
+				// drop the time that can not be caught up
+				accumulatedMillis %= fixedStepMillis;
+				break;
+			}
+			accumulatedMillis -= fixedStepMillis;
+			stepClock.advance(fixedStepMillis);
+			didHandleAnimation |= updateAnimations();
+			steps++;
+		}
+		// once per call and not per step
+		applyBlendChannels();
+		return steps > 0 ? didHandleAnimation : animationCount > 0;
+	}
+
+	/**
+	 * Updates all animations once.
+	 */
+	private boolean updateAnimations() {
+		frameTimeMillis.set(animationClock.getTimeMillis());
+
+		AnimationTracer frameTracer = tracer;
+		if (frameTracer != null) {
+			frameTracer.trace(AnimationTracer.EVENT_FRAME_BEGIN, null, getAnimationCount());
+		}
+
+		int handledCount = 0;
 		for (int i = 0; i < animations.length; i++) {
-			BaseAnimation animation = animations[i];
-			if (animation != null) {
+			if (animations[i] != null && updateAnimation(i)) {
+				handledCount++;
+			}
+		}
 
-				// for delayed animations.
-				if (!animation.hasStarted() && animation.getTimeStartPlaned() != -1
-						&& animation.getTimeStartPlaned() <= System.currentTimeMillis()) {
-					animation.start();
-					animation.setTimeStartPlaned(-1);
-				}
+		if (frameTracer != null) {
+			frameTracer.trace(AnimationTracer.EVENT_FRAME_END, null, handledCount);
+		}
+		return handledCount > 0;
+	}
 
-				if (animation.isFinished()) {
-					animations[i] = null;
-					animation.callAnimationFinishedListeners();
-					if (getAnimationCount() == 0 && allAnimationsFinishedListener != null) {
-						allAnimationsFinishedListener.onAnimationFinished(null);
-					}
+	/**
+	 * Passes the blended values of all channels to their listeners.
+	 */
+	private void applyBlendChannels() {
+		for (int i = 0; i < blendChannelCount; i++) {
+			blendChannels[i].apply();
+		}
+	}
 
-				} else {
-					animation.update();
-					didHandleAnimation = true;
-				}
+	/**
+	 * Updates the animation of a slot or removes it if it is done.
+	 * @return True if the animation was updated.
+	 */
+	private boolean updateAnimation(int pSlot) {
+		BaseAnimation animation = animations[pSlot];
+
+		// for delayed animations.
+		if (!animation.hasStarted() && animation.getTimeStartPlaned() != -1
+				&& animation.getTimeStartPlaned() <= animationClock.getTimeMillis()) {
+			animation.start();
+			animation.setTimeStartPlaned(-1);
+		}
+
+		if (animation.isFinished()) {
+			removeAt(pSlot);
+			// taken before the listeners, they may add the animation again
+			BaseAnimation queuedAnimation = dequeue(animation);
+			animation.callAnimationFinishedListeners();
+			if (queuedAnimation != null) {
+				add(queuedAnimation, ConflictPolicy.QUEUE);
 			}
+			if (getAnimationCount() == 0 && allAnimationsFinishedListener != null) {
+				allAnimationsFinishedListener.onAnimationFinished(null);
+			}
+			return false;
 		}
-		return didHandleAnimation;
+		animation.update();
+		return true;
 	}
 
 	/**
-	 * Gets the count of all animations.
-	 * @return The count.
+	 * Cancels the animations whose weak target was garbage collected.
 	 */
-	public int getAnimationCount() {
-		int count = 0;
+	private void cancelCollectedTargets() {
+		Reference<?> reference;
+		while ((reference = collectedTargets.poll()) != null) {
+			cancel(((TargetReference) reference).animation);
+		}
+	}
+
+	/**
+	 * Runs a task at the start of the next update on the thread that updates this
+	 * controller. Use it to add or cancel animations from other threads.
+	 * Can be called from any thread.
+	 * @param pTask The task to run.
+	 * @return This instance.
+	 */
+	public Ani post(Runnable pTask) {
+		postedTasks.add(pTask);
+		return this;
+	}
+
+	/**
+	 * Advances the manual clock of this controller in steps and updates
+	 * the animations after each step.
+	 * @param pMillis The milliseconds to advance.
+	 * @param pStepMillis The milliseconds between two updates.
+	 * @return This instance.
+	 * @throws IllegalStateException If this controller does not use a {@link ManualClock}.
+	 */
+	public Ani advance(long pMillis, int pStepMillis) {
+		ManualClock manualClock = getManualClock();
+		if (pStepMillis <= 0) {
+			throw new IllegalArgumentException("The step must be higher than 0.");
+		}
+		long remaining = pMillis;
+		while (remaining > 0) {
+			long step = Math.min(pStepMillis, remaining);
+			manualClock.advance(step);
+			update();
+			remaining -= step;
+		}
+		return this;
+	}
+
+	/**
+	 * Advances the manual clock of this controller in steps until all animations
+	 * are finished or the assigned maximum time has passed.
+	 * @param pStepMillis The milliseconds between two updates.
+	 * @param pMaxMillis The maximum milliseconds to advance (e.g. to limit infinite loops).
+	 * @return True if all animations are finished.
+	 * @throws IllegalStateException If this controller does not use a {@link ManualClock}.
+	 */
+	public boolean runUntilIdle(int pStepMillis, long pMaxMillis) {
+		ManualClock manualClock = getManualClock();
+		if (pStepMillis <= 0) {
+			throw new IllegalArgumentException("The step must be higher than 0.");
+		}
+		long advanced = 0;
+		while (getAnimationCount() > 0 && advanced < pMaxMillis) {
+			manualClock.advance(pStepMillis);
+			update();
+			advanced += pStepMillis;
+		}
+		return getAnimationCount() == 0;
+	}
+
+	private ManualClock getManualClock() {
+		if (!(clock instanceof ManualClock)) {
+			throw new IllegalStateException("The controller does not use a ManualClock.");
+		}
+		return (ManualClock) clock;
+	}
+
+	/**
+	 * Enables the fixed time step mode. The animations are updated in steps of
+	 * the same length, independent of the interval update() is called with.
+	 * The time that passed since the last step is available as interpolation alpha.
+	 * @param pStepMillis The length of a step in milliseconds. A value of 0 disables the mode.
+	 * @param pMaxCatchUpSteps The maximum count of steps per update. Time beyond is dropped.
+	 * @return This instance.
+	 */
+	public Ani setFixedTimeStep(int pStepMillis, int pMaxCatchUpSteps) {
+		if (pStepMillis <= 0) {
+			stepClock = null;
+			setAnimationClock(clock);
+			return this;
+		}
+		fixedStepMillis = pStepMillis;
+		maxCatchUpSteps = Math.max(1, pMaxCatchUpSteps);
+		if (stepClock == null) {
+			timeLastUpdate = clock.getTimeMillis();
+			accumulatedMillis = 0;
+			stepClock = new ManualClock(timeLastUpdate);
+			setAnimationClock(stepClock);
+		}
+		return this;
+	}
+
+	private void setAnimationClock(AnimationClock pClock) {
+		animationClock = pClock;
 		for (BaseAnimation animation : animations) {
 			if (animation != null) {
-				count++;
+				animation.setClock(pClock);
 			}
 		}
-		return count;
+	}
+
+	/**
+	 * Returns true if the fixed time step mode is enabled.
+	 * @return true if the fixed time step mode is enabled.
+	 */
+	public boolean isFixedTimeStep() {
+		return stepClock != null;
+	}
+
+	/**
+	 * Gets the part of a step that passed since the last fixed step (0.0 - 1.0).
+	 * Renderers can use it to interpolate between the last two steps.
+	 * @return The interpolation alpha or 1.0 if the fixed time step mode is disabled.
+	 */
+	public float getInterpolationAlpha() {
+		if (stepClock == null) {
+			return 1.0f;
+		}
+		return Math.min(1.0f, (float) accumulatedMillis / fixedStepMillis);
+	}
+
+	/**
+	 * Gets the clock used to time the animations of this controller.
+	 * @return The clock.
+	 */
+	public AnimationClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Gets a clock that returns the time of the last update. All reads within a frame
+	 * see the same time. Used by values that are computed on read like {@link AnimatedFloat}.
+	 * @return The frame clock.
+	 */
+	public AnimationClock getFrameClock() {
+		return frameClock;
+	}
+
+	/**
+	 * Gets the count of all animations.
+	 * @return The count.
+	 */
+	public int getAnimationCount() {
+		return animationCount;
 	}
 
 	/**
@@ -243,10 +845,9 @@ public class Ani {
 	 * @return The index or -1
 	 */
 	private int getIndexOf(BaseAnimation pAnimation) {
-		for (int i = 0; i < animations.length; i++) {
-			if (animations[i] == pAnimation) {
-				return i;
-			}
+		int slot = pAnimation != null ? pAnimation.controllerSlot : -1;
+		if (slot >= 0 && slot < animations.length && animations[slot] == pAnimation) {
+			return slot;
 		}
 		return -1;
 	}
@@ -254,20 +855,189 @@ public class Ani {
 	/**
 	 * Stops the animation the hard way.
 	 * Does not call animation.onFinish nor its finish listeners.
+	 * Animations queued behind it are dropped.
 	 * @param pAnimation The animation to cancel.
 	 * @return True if the animation was found.
 	 */
 	public boolean cancel(BaseAnimation pAnimation) {
+		return remove(pAnimation, true);
+	}
+
+	/**
+	 * Removes an animation and drops its queue.
+	 * @param pCancelled True to call the cancelled listener of the animation.
+	 * @return True if the animation was found.
+	 */
+	private boolean remove(BaseAnimation pAnimation, boolean pCancelled) {
 		int indexOf = getIndexOf(pAnimation);
 		if (indexOf > -1) {
-			animations[indexOf] = null;
+			dropQueue(pAnimation);
+			removeAt(indexOf);
+			if (pCancelled) {
+				callCancelledListener(pAnimation);
+			}
 			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Cancels all animations of a target. See {@link #cancel(BaseAnimation)}.
+	 * @param pTarget The target of the animations.
+	 * @return The count of canceled animations.
+	 */
+	public int cancelByTarget(Object pTarget) {
+		return cancelGroup(targetIndex.get(pTarget));
+	}
+
+	/**
+	 * Cancels all animations with a tag. See {@link #cancel(BaseAnimation)}.
+	 * @param pTag The tag of the animations.
+	 * @return The count of canceled animations.
+	 */
+	public int cancelByTag(String pTag) {
+		return cancelGroup(tagIndex.get(pTag));
+	}
+
+	private int cancelGroup(List<BaseAnimation> pGroup) {
+		if (pGroup == null) {
+			return 0;
+		}
+		int count = 0;
+		for (int i = pGroup.size() - 1; i >= 0 && i < pGroup.size(); i--) {
+			if (cancel(pGroup.get(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gracefully stops all animations of a target. See {@link #stop(BaseAnimation)}.
+	 * @param pTarget The target of the animations.
+	 * @return This instance.
+	 */
+	public Ani stopByTarget(Object pTarget) {
+		return stopGroup(targetIndex.get(pTarget));
+	}
+
+	/**
+	 * Gracefully stops all animations with a tag. See {@link #stop(BaseAnimation)}.
+	 * @param pTag The tag of the animations.
+	 * @return This instance.
+	 */
+	public Ani stopByTag(String pTag) {
+		return stopGroup(tagIndex.get(pTag));
+	}
+
+	private Ani stopGroup(List<BaseAnimation> pGroup) {
+		if (pGroup == null) {
+			return this;
+		}
+		// copy the group since listeners may add or remove animations
+		BaseAnimation[] group = pGroup.toArray(new BaseAnimation[pGroup.size()]);
+		for (BaseAnimation animation : group) {
+			if (getIndexOf(animation) > -1) {
+				stop(animation);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Pauses all animations of a target.
+	 * @param pTarget The target of the animations.
+	 * @return This instance.
+	 */
+	public Ani pauseByTarget(Object pTarget) {
+		return pauseGroup(targetIndex.get(pTarget), true);
+	}
+
+	/**
+	 * Pauses all animations with a tag.
+	 * @param pTag The tag of the animations.
+	 * @return This instance.
+	 */
+	public Ani pauseByTag(String pTag) {
+		return pauseGroup(tagIndex.get(pTag), true);
+	}
+
+	/**
+	 * Resumes all animations of a target.
+	 * @param pTarget The target of the animations.
+	 * @return This instance.
+	 */
+	public Ani resumeByTarget(Object pTarget) {
+		return pauseGroup(targetIndex.get(pTarget), false);
+	}
+
+	/**
+	 * Resumes all animations with a tag.
+	 * @param pTag The tag of the animations.
+	 * @return This instance.
+	 */
+	public Ani resumeByTag(String pTag) {
+		return pauseGroup(tagIndex.get(pTag), false);
+	}
+
+	private Ani pauseGroup(List<BaseAnimation> pGroup, boolean pPause) {
+		if (pGroup == null) {
+			return this;
+		}
+		for (int i = 0; i < pGroup.size(); i++) {
+			if (pPause) {
+				pGroup.get(i).pause();
+			} else {
+				pGroup.get(i).resume();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the count of animations of a target.
+	 * @param pTarget The target of the animations.
+	 * @return The count.
+	 */
+	public int getAnimationCountByTarget(Object pTarget) {
+		List<BaseAnimation> group = targetIndex.get(pTarget);
+		return group != null ? group.size() : 0;
+	}
+
+	/**
+	 * Gets the count of animations with a tag.
+	 * @param pTag The tag of the animations.
+	 * @return The count.
+	 */
+	public int getAnimationCountByTag(String pTag) {
+		List<BaseAnimation> group = tagIndex.get(pTag);
+		return group != null ? group.size() : 0;
+	}
+
+	/**
+	 * Sets the policy for animations that are added while another animation with the
+	 * same conflict key is running. The default is {@link ConflictPolicy#REPLACE}.
+	 * @param pConflictPolicy The policy.
+	 * @return This instance.
+	 */
+	public Ani setConflictPolicy(ConflictPolicy pConflictPolicy) {
+		if (pConflictPolicy != null) {
+			conflictPolicy = pConflictPolicy;
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the policy for conflicting animations.
+	 * @return The policy.
+	 */
+	public ConflictPolicy getConflictPolicy() {
+		return conflictPolicy;
+	}
+
 	/**
 	 * Gracefully stops the animation and calls its listeners.
+	 * Animations queued behind it are dropped like by {@link #cancel(BaseAnimation)}.
 	 * @param pAnimation The animation to stop.
 	 * @return This instance.
 	 */
@@ -275,7 +1045,7 @@ public class Ani {
 		if (pAnimation != null) {
 			pAnimation.onFinish();
 			pAnimation.callAnimationFinishedListeners();
-			cancel(pAnimation);
+			remove(pAnimation, false);
 		}
 		return this;
 	}
@@ -309,6 +1079,76 @@ public class Ani {
 		return this;
 	}
 
+	/**
+	 * Writes the state of all running and delayed animations to restore them later
+	 * with readSnapshot. The codec writes the custom data of each animation.
+	 * Listeners are not part of the snapshot.
+	 * @param pOutput The output to write to.
+	 * @param pCodec The codec to write the custom animation data.
+	 * @return This instance.
+	 * @throws IOException If writing fails.
+	 */
+	public Ani writeSnapshot(DataOutput pOutput, AnimationCodec pCodec) throws IOException {
+		long now = animationClock.getTimeMillis();
+		pOutput.writeInt(SNAPSHOT_MAGIC);
+		pOutput.writeByte(SNAPSHOT_VERSION);
+		for (BaseAnimation animation : animations) {
+			if (animation == null || animation.isFinished()) {
+				continue;
+			}
+			int typeId = pCodec.getTypeId(animation);
+			if (typeId < 0) {
+				continue;
+			}
+			pOutput.writeInt(typeId);
+			pCodec.writePayload(animation, pOutput);
+			animation.writeState(pOutput, now);
+		}
+		pOutput.writeInt(SNAPSHOT_END);
+		return this;
+	}
+
+	/**
+	 * Reads a snapshot written by writeSnapshot and adds the animations.
+	 * The animations continue at their snapshot progress without calling onStart.
+	 * @param pInput The input to read from.
+	 * @param pCodec The codec to create the animations.
+	 * @return The count of restored animations that were added to this controller.
+	 * @throws IOException If reading fails or the input is not a snapshot.
+	 */
+	public int readSnapshot(DataInput pInput, AnimationCodec pCodec) throws IOException {
+		if (pInput.readInt() != SNAPSHOT_MAGIC) {
+			throw new IOException("The input is not an animation snapshot.");
+		}
+		int version = pInput.readByte();
+		if (version != SNAPSHOT_VERSION) {
+			throw new IOException("Unsupported snapshot version " + version + ".");
+		}
+		long now = animationClock.getTimeMillis();
+		int restoredCount = 0;
+		byte[] skippedState = null;
+		int typeId = pInput.readInt();
+		while (typeId != SNAPSHOT_END) {
+			BaseAnimation animation = pCodec.readPayload(typeId, pInput);
+			if (animation != null) {
+				animation.setClock(animationClock);
+				animation.readState(pInput, now);
+				add(animation);
+				if (getIndexOf(animation) != -1) {
+					restoredCount++;
+				}
+			} else {
+				// skipBytes may skip less
+				if (skippedState == null) {
+					skippedState = new byte[BaseAnimation.STATE_BYTES];
+				}
+				pInput.readFully(skippedState);
+			}
+			typeId = pInput.readInt();
+		}
+		return restoredCount;
+	}
+
 	/**
 	 * Sets a listener that will be called if all animations of this controller are finished.
 	 * @param pListener The listener to call.
@@ -340,6 +1180,26 @@ public class Ani {
 	}
 
 
+	/**
+	 * Sets the tracer that receives the events of this controller and its animations.
+	 * A tracer that allows a single writer only (e.g. a RingBufferTracer) must not be
+	 * shared with other controllers.
+	 * @param pTracer The tracer or null to disable tracing.
+	 * @return This instance.
+	 */
+	public Ani setTracer(AnimationTracer pTracer) {
+		tracer = pTracer;
+		return this;
+	}
+
+	/**
+	 * Gets the tracer of this controller.
+	 * @return The tracer or null.
+	 */
+	public AnimationTracer getTracer() {
+		return tracer;
+	}
+
 	/**
 	 * Enables and disables the controller.
 	 * @param pEnabled The state.
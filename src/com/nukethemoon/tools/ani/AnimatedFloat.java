@@ -0,0 +1,140 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * A float value that animates towards a target without being part of a controller.
+ * The value is computed on read from the clock and cached for the current time, so
+ * values that are rarely read cost nothing between the reads. Use the frame clock of a
+ * controller ({@link Ani#getFrameClock()}) to read the same value within a frame.
+ * The animation finishes on the first read after its deadline.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class AnimatedFloat {
+
+	private final AnimationClock clock;
+
+	private float from;
+	private float to;
+	private long timeStart;
+	private long deadline = -1;
+	private float durationMillis;
+	private Easing easing;
+
+	private long cachedTime = Long.MIN_VALUE;
+	private float cachedValue;
+
+	/**
+	 * Creates a new value at rest.
+	 * @param pClock The clock to read the time from.
+	 * @param pValue The initial value.
+	 */
+	public AnimatedFloat(AnimationClock pClock, float pValue) {
+		clock = pClock != null ? pClock : AnimationClock.SYSTEM;
+		from = pValue;
+		to = pValue;
+		cachedValue = pValue;
+	}
+
+	/**
+	 * Animates from the current value to a new value.
+	 * @param pTo The value to animate to.
+	 * @param pDurationMillis The duration in milliseconds.
+	 * @return This instance.
+	 */
+	public AnimatedFloat animateTo(float pTo, int pDurationMillis) {
+		float current = get();
+		long now = clock.getTimeMillis();
+		float duration = pDurationMillis * Ani.getGlobalTimeFactor();
+		if (duration <= 0) {
+			return set(pTo);
+		}
+		from = current;
+		to = pTo;
+		timeStart = now;
+		durationMillis = duration;
+		deadline = now + (long) Math.ceil(duration);
+		cachedTime = Long.MIN_VALUE;
+		return this;
+	}
+
+	/**
+	 * Sets the value without an animation.
+	 * @param pValue The value.
+	 * @return This instance.
+	 */
+	public AnimatedFloat set(float pValue) {
+		from = pValue;
+		to = pValue;
+		deadline = -1;
+		cachedValue = pValue;
+		cachedTime = Long.MIN_VALUE;
+		return this;
+	}
+
+	/**
+	 * Sets an easing that is applied to the progress.
+	 * @param pEasing The easing or null for a linear progress.
+	 * @return This instance.
+	 */
+	public AnimatedFloat setEasing(Easing pEasing) {
+		easing = pEasing;
+		cachedTime = Long.MIN_VALUE;
+		return this;
+	}
+
+	/**
+	 * Gets the value at the current time of the clock.
+	 * @return The value.
+	 */
+	public float get() {
+		if (deadline == -1) {
+			return to;
+		}
+		long now = clock.getTimeMillis();
+		if (now == cachedTime) {
+			return cachedValue;
+		}
+		if (now >= deadline) {
+			// finish lazily
+			deadline = -1;
+			from = to;
+			cachedValue = to;
+			return to;
+		}
+		float progress = Math.max(0.0f, (now - timeStart) / durationMillis);
+		if (easing != null) {
+			progress = easing.apply(progress);
+		}
+		cachedTime = now;
+		cachedValue = from + (to - from) * progress;
+		return cachedValue;
+	}
+
+	/**
+	 * Gets the value the animation ends with.
+	 * @return The target value.
+	 */
+	public float getTarget() {
+		return to;
+	}
+
+	/**
+	 * Returns true if the value is still changing.
+	 * @return true if the value is still changing.
+	 */
+	public boolean isAnimating() {
+		if (deadline != -1 && clock.getTimeMillis() >= deadline) {
+			get();
+		}
+		return deadline != -1;
+	}
+
+	/**
+	 * Gets the clock time the animation ends at. Renderers can use it to
+	 * schedule frames until the value is at rest.
+	 * @return The deadline or -1 if the value is at rest.
+	 */
+	public long getDeadline() {
+		return deadline;
+	}
+}
@@ -0,0 +1,25 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * A source of time for animations and animation controllers.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface AnimationClock {
+
+	/**
+	 * A clock that uses the system time.
+	 */
+	AnimationClock SYSTEM = new AnimationClock() {
+		@Override
+		public long getTimeMillis() {
+			return System.currentTimeMillis();
+		}
+	};
+
+	/**
+	 * Gets the current time of this clock.
+	 * @return The current time in milliseconds.
+	 */
+	long getTimeMillis();
+}
@@ -0,0 +1,40 @@
+package com.nukethemoon.tools.ani;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads the custom data of animations to snapshot and restore
+ * the state of an animation controller.
+ * The time state of the animations is handled by the controller.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface AnimationCodec {
+
+	/**
+	 * Gets the id of the animation type used to restore the animation.
+	 * @param pAnimation The animation to write.
+	 * @return The type id or a negative value to exclude the animation from the snapshot.
+	 */
+	int getTypeId(BaseAnimation pAnimation);
+
+	/**
+	 * Writes the custom data of an animation (e.g. a reference to its target).
+	 * @param pAnimation The animation to write.
+	 * @param pOutput The output to write to.
+	 * @throws IOException If writing fails.
+	 */
+	void writePayload(BaseAnimation pAnimation, DataOutput pOutput) throws IOException;
+
+	/**
+	 * Reads the custom data written by writePayload and creates the animation.
+	 * Listeners have to be assigned again by the codec.
+	 * @param pTypeId The type id of the animation.
+	 * @param pInput The input to read from.
+	 * @return The created animation or null to drop it.
+	 * @throws IOException If reading fails.
+	 */
+	BaseAnimation readPayload(int pTypeId, DataInput pInput) throws IOException;
+}
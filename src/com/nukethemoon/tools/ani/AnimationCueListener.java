@@ -0,0 +1,17 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Listener of a cue point of an animation.
+ * See {@link BaseAnimation#addCue(float, AnimationCueListener)}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface AnimationCueListener {
+
+	/**
+	 * Called if the progress of the animation passed the cue.
+	 * @param pAnimation The animation.
+	 * @param pProgress The progress of the cue.
+	 */
+	void onCue(BaseAnimation pAnimation, float pProgress);
+}
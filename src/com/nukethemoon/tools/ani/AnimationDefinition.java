@@ -0,0 +1,183 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An immutable compiled description of an animation, a sequence or a group.
+ * Definitions are created by {@link AnimationDefinitions}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public final class AnimationDefinition {
+
+	public static final int KIND_ANIMATION = 0;
+	public static final int KIND_SEQUENCE = 1;
+	public static final int KIND_GROUP = 2;
+
+	/**
+	 * Flags of the optional values a spec declares.
+	 */
+	static final int DECLARED_LOOPS = 1;
+	static final int DECLARED_RATE = 2;
+	static final int DECLARED_EASING = 4;
+	static final int DECLARED_DURATION = 8;
+
+	private final int kind;
+	private final String name;
+	private final AnimationFactory factory;
+	private final int durationMillis;
+	private final int delayMillis;
+	private final int loopLength;
+	private final float playbackRate;
+	private final Easing easing;
+	private final int declared;
+	private final AnimationDefinition[] children;
+
+	/**
+	 * Creates the definition of a single animation.
+	 * @param pDeclared The DECLARED_ flags of the values the spec contains.
+	 */
+	AnimationDefinition(String pName, AnimationFactory pFactory, int pDurationMillis, int pDelayMillis,
+						int pLoopLength, float pPlaybackRate, Easing pEasing, int pDeclared) {
+		kind = KIND_ANIMATION;
+		declared = pDeclared;
+		name = pName;
+		factory = pFactory;
+		durationMillis = pDurationMillis;
+		delayMillis = pDelayMillis;
+		loopLength = pLoopLength;
+		playbackRate = pPlaybackRate;
+		easing = pEasing;
+		children = null;
+	}
+
+	/**
+	 * Creates the definition of a sequence or group.
+	 */
+	AnimationDefinition(String pName, int pKind, AnimationDefinition[] pChildren) {
+		kind = pKind;
+		declared = 0;
+		name = pName;
+		factory = null;
+		durationMillis = 0;
+		delayMillis = 0;
+		loopLength = 0;
+		playbackRate = 1.0f;
+		easing = null;
+		children = pChildren;
+	}
+
+	/**
+	 * Creates the animation of a definition of the kind KIND_ANIMATION.
+	 * The delay is not applied. Duration, loops, rate and easing are only set if the spec
+	 * declares them, otherwise the animation keeps its own values (e.g. the duration
+	 * a {@link StaggerAnimation} computes from its items).
+	 * @param pTarget The object to animate.
+	 * @return The new animation.
+	 */
+	public BaseAnimation create(Object pTarget) {
+		if (kind != KIND_ANIMATION) {
+			throw new IllegalStateException("The definition '" + name + "' is not a single animation.");
+		}
+		BaseAnimation animation = factory.create(pTarget);
+		if ((declared & DECLARED_DURATION) != 0) {
+			animation.setDurationMillis(durationMillis);
+		}
+		if ((declared & DECLARED_LOOPS) != 0) {
+			animation.setLoopLength(loopLength);
+		}
+		if ((declared & DECLARED_EASING) != 0) {
+			animation.setEasing(easing);
+		}
+		if ((declared & DECLARED_RATE) != 0) {
+			animation.setPlaybackRate(playbackRate);
+		}
+		return animation;
+	}
+
+	/**
+	 * Creates the animations of this definition and adds them to a controller.
+	 * @param pAni The controller to add the animations to.
+	 * @param pTarget The object to animate.
+	 * @param pFinishedListener A listener that gets called if all animations finished or null.
+	 */
+	public void play(Ani pAni, Object pTarget, AnimationFinishedListener pFinishedListener) {
+		switch (kind) {
+			case KIND_ANIMATION:
+				BaseAnimation animation = create(pTarget);
+				animation.addFinishedListener(pFinishedListener);
+				pAni.add(delayMillis, animation);
+				break;
+			case KIND_GROUP:
+				AnimationFinishedListener collector = null;
+				if (pFinishedListener != null) {
+					collector = new AnimationsFinishedCollector(children.length, pFinishedListener);
+				}
+				for (AnimationDefinition child : children) {
+					child.play(pAni, pTarget, collector);
+				}
+				break;
+			default:
+				playSequence(0, pAni, pTarget, pFinishedListener);
+				break;
+		}
+	}
+
+	private void playSequence(final int pIndex, final Ani pAni, final Object pTarget,
+							  final AnimationFinishedListener pFinishedListener) {
+		if (pIndex == children.length - 1) {
+			children[pIndex].play(pAni, pTarget, pFinishedListener);
+			return;
+		}
+		children[pIndex].play(pAni, pTarget, new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				playSequence(pIndex + 1, pAni, pTarget, pFinishedListener);
+			}
+		});
+	}
+
+	public int getKind() {
+		return kind;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the duration the spec declares.
+	 * @return The duration in milliseconds, -1 if the spec does not declare it
+	 * or 0 for sequences and groups.
+	 */
+	public int getDurationMillis() {
+		return durationMillis;
+	}
+
+	public int getDelayMillis() {
+		return delayMillis;
+	}
+
+	public int getLoopLength() {
+		return loopLength;
+	}
+
+	public Easing getEasing() {
+		return easing;
+	}
+
+	/**
+	 * Gets the count of children of a sequence or group.
+	 * @return The count of children.
+	 */
+	public int getChildCount() {
+		return children != null ? children.length : 0;
+	}
+
+	/**
+	 * Gets a child of a sequence or group.
+	 * @param pIndex The index of the child.
+	 * @return The child definition.
+	 */
+	public AnimationDefinition getChild(int pIndex) {
+		return children[pIndex];
+	}
+}
@@ -0,0 +1,213 @@
+package com.nukethemoon.tools.ani;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses animation specs into compiled {@link AnimationDefinition}s and caches them by name.
+ * The animation behaviour is registered in code as an animation type, while duration,
+ * delay, easing and loops come from the spec. Specs can be changed without a rebuild.
+ * Values that a spec does not declare keep the value of the created animation.
+ * <p>
+ * The spec format has one definition per line. Empty lines and lines starting with # are ignored.
+ * <pre>
+ * animation fadeIn type=fade duration=300 delay=50 easing=quadOut loops=2
+ * animation pulse type=scale duration=500 loops=infinite rate=-1
+ * sequence intro fadeIn pulse
+ * group popIn fadeIn slideUp
+ * </pre>
+ * Sequences and groups may only reference definitions that are defined before.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class AnimationDefinitions {
+
+	private final Map<String, AnimationFactory> types = new HashMap<String, AnimationFactory>();
+	private final Map<String, AnimationDefinition> definitions = new HashMap<String, AnimationDefinition>();
+
+	/**
+	 * Registers an animation type. Types must be registered before specs that use them are loaded.
+	 * @param pType The name of the type.
+	 * @param pFactory The factory that creates the animations of the type.
+	 * @return This instance.
+	 */
+	public AnimationDefinitions registerType(String pType, AnimationFactory pFactory) {
+		types.put(pType, pFactory);
+		return this;
+	}
+
+	/**
+	 * Reads a spec line by line and adds its definitions. Existing definitions with
+	 * the same name are replaced.
+	 * @param pReader The reader of the spec.
+	 * @return The count of loaded definitions.
+	 * @throws IOException If reading fails or the spec is invalid.
+	 */
+	public int load(Reader pReader) throws IOException {
+		BufferedReader reader = pReader instanceof BufferedReader
+				? (BufferedReader) pReader : new BufferedReader(pReader);
+		int lineNumber = 0;
+		int count = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			AnimationDefinition definition = parseLine(line, lineNumber);
+			definitions.put(definition.getName(), definition);
+			count++;
+		}
+		return count;
+	}
+
+	private AnimationDefinition parseLine(String pLine, int pLineNumber) throws IOException {
+		String[] tokens = pLine.split("\\s+");
+		if (tokens.length < 2) {
+			throw error(pLineNumber, "A definition needs a kind and a name.");
+		}
+		String kind = tokens[0];
+		String name = tokens[1];
+		if ("animation".equals(kind)) {
+			return parseAnimation(name, tokens, pLineNumber);
+		}
+		int compositeKind;
+		if ("sequence".equals(kind)) {
+			compositeKind = AnimationDefinition.KIND_SEQUENCE;
+		} else if ("group".equals(kind)) {
+			compositeKind = AnimationDefinition.KIND_GROUP;
+		} else {
+			throw error(pLineNumber, "Unknown kind '" + kind + "'.");
+		}
+		if (tokens.length < 3) {
+			throw error(pLineNumber, "The " + kind + " '" + name + "' has no children.");
+		}
+		AnimationDefinition[] children = new AnimationDefinition[tokens.length - 2];
+		for (int i = 2; i < tokens.length; i++) {
+			AnimationDefinition child = definitions.get(tokens[i]);
+			if (child == null) {
+				throw error(pLineNumber, "Unknown definition '" + tokens[i] + "'.");
+			}
+			children[i - 2] = child;
+		}
+		return new AnimationDefinition(name, compositeKind, children);
+	}
+
+	private AnimationDefinition parseAnimation(String pName, String[] pTokens, int pLineNumber) throws IOException {
+		AnimationFactory factory = null;
+		int duration = -1;
+		int delay = 0;
+		int loopLength = 0;
+		float playbackRate = 1.0f;
+		Easing easing = null;
+		int declared = 0;
+		for (int i = 2; i < pTokens.length; i++) {
+			String token = pTokens[i];
+			int separator = token.indexOf('=');
+			if (separator <= 0) {
+				throw error(pLineNumber, "Expected key=value but found '" + token + "'.");
+			}
+			String key = token.substring(0, separator);
+			String value = token.substring(separator + 1);
+			try {
+				switch (key) {
+					case "type":
+						factory = types.get(value);
+						if (factory == null) {
+							throw error(pLineNumber, "Unknown animation type '" + value + "'.");
+						}
+						break;
+					case "duration":
+						duration = Integer.parseInt(value);
+						if (duration < 0) {
+							throw error(pLineNumber, "The duration of '" + pName + "' must not be negative.");
+						}
+						declared |= AnimationDefinition.DECLARED_DURATION;
+						break;
+					case "delay":
+						delay = Integer.parseInt(value);
+						break;
+					case "loops":
+						loopLength = "infinite".equals(value) ? -1 : Integer.parseInt(value);
+						declared |= AnimationDefinition.DECLARED_LOOPS;
+						break;
+					case "rate":
+						playbackRate = Float.parseFloat(value);
+						declared |= AnimationDefinition.DECLARED_RATE;
+						break;
+					case "easing":
+						easing = Easings.forName(value);
+						if (easing == null) {
+							throw error(pLineNumber, "Unknown easing '" + value + "'.");
+						}
+						declared |= AnimationDefinition.DECLARED_EASING;
+						break;
+					default:
+						throw error(pLineNumber, "Unknown key '" + key + "'.");
+				}
+			} catch (NumberFormatException e) {
+				throw error(pLineNumber, "Invalid number '" + value + "' for '" + key + "'.");
+			}
+		}
+		if (factory == null) {
+			throw error(pLineNumber, "The animation '" + pName + "' has no type.");
+		}
+		return new AnimationDefinition(pName, factory, duration, delay, loopLength, playbackRate, easing, declared);
+	}
+
+	private static IOException error(int pLineNumber, String pMessage) {
+		return new IOException("Line " + pLineNumber + ": " + pMessage);
+	}
+
+	/**
+	 * Gets a definition by its name.
+	 * @param pName The name of the definition.
+	 * @return The definition or null.
+	 */
+	public AnimationDefinition get(String pName) {
+		return definitions.get(pName);
+	}
+
+	/**
+	 * Creates the animations of a definition and adds them to a controller.
+	 * @param pAni The controller to add the animations to.
+	 * @param pName The name of the definition.
+	 * @param pTarget The object to animate.
+	 * @return This instance.
+	 */
+	public AnimationDefinitions play(Ani pAni, String pName, Object pTarget) {
+		return play(pAni, pName, pTarget, null);
+	}
+
+	/**
+	 * Creates the animations of a definition and adds them to a controller.
+	 * @param pAni The controller to add the animations to.
+	 * @param pName The name of the definition.
+	 * @param pTarget The object to animate.
+	 * @param pFinishedListener A listener that gets called if all animations finished or null.
+	 * @return This instance.
+	 */
+	public AnimationDefinitions play(Ani pAni, String pName, Object pTarget,
+									 AnimationFinishedListener pFinishedListener) {
+		AnimationDefinition definition = definitions.get(pName);
+		if (definition == null) {
+			throw new IllegalArgumentException("Unknown definition '" + pName + "'.");
+		}
+		definition.play(pAni, pTarget, pFinishedListener);
+		return this;
+	}
+
+	/**
+	 * Gets the names of all definitions.
+	 * @return The names.
+	 */
+	public List<String> getNames() {
+		return new ArrayList<String>(definitions.keySet());
+	}
+}
@@ -0,0 +1,17 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Creates the animations of an animation type used in animation definitions.
+ * See {@link AnimationDefinitions}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface AnimationFactory {
+
+	/**
+	 * Creates a new animation. Duration, loops and easing are set by the definition.
+	 * @param pTarget The object to animate.
+	 * @return The animation.
+	 */
+	BaseAnimation create(Object pTarget);
+}
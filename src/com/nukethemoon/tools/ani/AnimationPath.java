@@ -0,0 +1,118 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An immutable 2D curve that can be followed with constant speed.
+ * The arc length is sampled once into a table when the path is created. Looking up a
+ * point by its distance is a binary search (or a cursor step) in that table and does
+ * not allocate. Share one instance between all animations that follow the same path.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class AnimationPath {
+
+	/**
+	 * The default count of table samples per curve segment.
+	 */
+	public static final int DEFAULT_SAMPLES_PER_SEGMENT = 16;
+
+	/**
+	 * The arc length from the start of the path to each sample.
+	 */
+	private float[] lengths;
+
+	/**
+	 * Computes the point of the curve at a curve parameter.
+	 * The parameter does not change proportional to the arc length.
+	 * @param pT The curve parameter between 0.0 and 1.0.
+	 * @param pOut An array to write x and y to.
+	 */
+	protected abstract void evaluate(float pT, float[] pOut);
+
+	/**
+	 * Samples the arc length table. Must be called by the constructor of subclasses.
+	 * @param pSamples The count of samples.
+	 */
+	protected final void buildTable(int pSamples) {
+		int samples = Math.max(1, pSamples);
+		float[] table = new float[samples + 1];
+		float[] point = new float[2];
+		evaluate(0.0f, point);
+		float lastX = point[0];
+		float lastY = point[1];
+		for (int i = 1; i <= samples; i++) {
+			evaluate((float) i / samples, point);
+			float dx = point[0] - lastX;
+			float dy = point[1] - lastY;
+			table[i] = table[i - 1] + (float) Math.sqrt(dx * dx + dy * dy);
+			lastX = point[0];
+			lastY = point[1];
+		}
+		lengths = table;
+	}
+
+	/**
+	 * Gets the length of the path.
+	 * @return The length.
+	 */
+	public float getLength() {
+		return lengths[lengths.length - 1];
+	}
+
+	/**
+	 * Computes the point at a part of the path length.
+	 * @param pProgress The part of the length between 0.0 and 1.0.
+	 * @param pOut An array to write x and y to.
+	 */
+	public void getPoint(float pProgress, float[] pOut) {
+		getPoint(pProgress, pOut, -1);
+	}
+
+	/**
+	 * Computes the point at a part of the path length. Continuous lookups
+	 * pass the returned cursor to the next call to avoid the binary search.
+	 * @param pProgress The part of the length between 0.0 and 1.0.
+	 * @param pOut An array to write x and y to.
+	 * @param pCursor The cursor of the last lookup or -1.
+	 * @return The cursor of this lookup.
+	 */
+	public int getPoint(float pProgress, float[] pOut, int pCursor) {
+		float[] table = lengths;
+		int samples = table.length - 1;
+		float distance = Math.max(0.0f, Math.min(1.0f, pProgress)) * table[samples];
+		int sample = findSample(distance, pCursor);
+
+		float sampleLength = table[sample + 1] - table[sample];
+		float sampleProgress = sampleLength > 0 ? (distance - table[sample]) / sampleLength : 0.0f;
+		evaluate((sample + sampleProgress) / samples, pOut);
+		return sample;
+	}
+
+	/**
+	 * Finds the sample that contains a distance.
+	 * @return The index i with lengths[i] &lt;= distance &lt;= lengths[i + 1].
+	 */
+	private int findSample(float pDistance, int pCursor) {
+		float[] table = lengths;
+		int lastSample = table.length - 2;
+		if (pCursor >= 0 && pCursor <= lastSample) {
+			// the distance is usually in the same or the next sample
+			if (table[pCursor] <= pDistance && pDistance <= table[pCursor + 1]) {
+				return pCursor;
+			}
+			if (pCursor < lastSample && table[pCursor + 1] <= pDistance && pDistance <= table[pCursor + 2]) {
+				return pCursor + 1;
+			}
+		}
+		int low = 0;
+		int high = lastSample;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (table[middle] <= pDistance) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,59 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Receives events of animation controllers and animations.
+ * A tracer is set per controller with {@link Ani#setTracer(AnimationTracer)}.
+ * It is called on the thread that updates the animations and should not block.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface AnimationTracer {
+
+	/**
+	 * A controller starts to update its animations. The value is the count of animations.
+	 */
+	int EVENT_FRAME_BEGIN = 1;
+
+	/**
+	 * A controller updated its animations. The value is the count of updated animations.
+	 */
+	int EVENT_FRAME_END = 2;
+
+	/**
+	 * An animation started. The value is the start progress.
+	 */
+	int EVENT_START = 3;
+
+	/**
+	 * An animation was updated. The value is the current progress.
+	 */
+	int EVENT_PROGRESS = 4;
+
+	/**
+	 * An animation started a new loop. The value is the loop index.
+	 */
+	int EVENT_LOOP = 5;
+
+	/**
+	 * An animation finished. The value is the end progress.
+	 */
+	int EVENT_FINISH = 6;
+
+	/**
+	 * A finished listener of an animation gets called. The value is the listener index.
+	 */
+	int EVENT_LISTENER_BEGIN = 7;
+
+	/**
+	 * A finished listener of an animation returned. The value is the listener index.
+	 */
+	int EVENT_LISTENER_END = 8;
+
+	/**
+	 * Called on every event.
+	 * @param pEvent The event type.
+	 * @param pAnimation The animation of the event or null for controller events.
+	 * @param pValue The value of the event.
+	 */
+	void trace(int pEvent, BaseAnimation pAnimation, float pValue);
+}
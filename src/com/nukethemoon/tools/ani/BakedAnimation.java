@@ -0,0 +1,40 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation that replays a {@link BakedCurve}. The source of the curve is not
+ * evaluated while the animation runs.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class BakedAnimation extends BaseAnimation {
+
+	private final BakedCurve curve;
+	private final float[] values;
+
+	/**
+	 * Creates a new animation.
+	 * @param pCurve The curve to replay.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public BakedAnimation(BakedCurve pCurve, int pDurationMillis) {
+		super(pDurationMillis);
+		curve = pCurve;
+		values = new float[pCurve.getChannelCount()];
+	}
+
+	/**
+	 * Called with the values of all channels at the current progress.
+	 * @param pValues One value per channel. The array is reused for every call.
+	 */
+	protected abstract void onValues(float[] pValues);
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		curve.sample(pProgress, values);
+		onValues(values);
+	}
+
+	public BakedCurve getCurve() {
+		return curve;
+	}
+}
@@ -0,0 +1,97 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * The values of a {@link CurveSource} sampled at equal progress steps.
+ * Sampling a baked curve is a table lookup and a linear interpolation, independent
+ * of the cost of the source.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public final class BakedCurve {
+
+	private final int channelCount;
+	private final int sampleCount;
+
+	/**
+	 * The values of all channels sample by sample.
+	 */
+	private final float[] values;
+
+	private BakedCurve(int pChannelCount, int pSampleCount, float[] pValues) {
+		channelCount = pChannelCount;
+		sampleCount = pSampleCount;
+		values = pValues;
+	}
+
+	/**
+	 * Samples a source.
+	 * @param pSource The source to sample.
+	 * @param pSampleCount The count of samples including progress 0.0 and 1.0. At least 2.
+	 * @return The baked curve.
+	 */
+	public static BakedCurve bake(CurveSource pSource, int pSampleCount) {
+		if (pSampleCount < 2) {
+			throw new IllegalArgumentException("At least two samples are needed.");
+		}
+		int channelCount = pSource.getChannelCount();
+		float[] values = new float[channelCount * pSampleCount];
+		float[] sample = new float[channelCount];
+		for (int i = 0; i < pSampleCount; i++) {
+			pSource.evaluate((float) i / (pSampleCount - 1), sample);
+			System.arraycopy(sample, 0, values, i * channelCount, channelCount);
+		}
+		return new BakedCurve(channelCount, pSampleCount, values);
+	}
+
+	/**
+	 * Computes the values of all channels at a progress.
+	 * @param pProgress The progress between 0.0 and 1.0.
+	 * @param pValues The array to write one value per channel to.
+	 */
+	public void sample(float pProgress, float[] pValues) {
+		float position = Math.max(0.0f, Math.min(1.0f, pProgress)) * (sampleCount - 1);
+		int index = Math.min((int) position, sampleCount - 2);
+		float fraction = position - index;
+		int start = index * channelCount;
+		int end = start + channelCount;
+		for (int channel = 0; channel < channelCount; channel++) {
+			float startValue = values[start + channel];
+			pValues[channel] = startValue + (values[end + channel] - startValue) * fraction;
+		}
+	}
+
+	/**
+	 * Computes the value of one channel at a progress.
+	 * @param pProgress The progress between 0.0 and 1.0.
+	 * @param pChannel The index of the channel.
+	 * @return The value.
+	 */
+	public float sample(float pProgress, int pChannel) {
+		float position = Math.max(0.0f, Math.min(1.0f, pProgress)) * (sampleCount - 1);
+		int index = Math.min((int) position, sampleCount - 2);
+		float startValue = values[index * channelCount + pChannel];
+		float endValue = values[(index + 1) * channelCount + pChannel];
+		return startValue + (endValue - startValue) * (position - index);
+	}
+
+	public int getChannelCount() {
+		return channelCount;
+	}
+
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Estimates the heap memory used by this curve.
+	 * @return The bytes used by the object and its table.
+	 */
+	public long getMemoryBytes() {
+		// object header and fields plus array header and values, aligned to 8 bytes
+		return align(12 + 4 + 4 + 4) + align(16 + 4L * values.length);
+	}
+
+	private static long align(long pBytes) {
+		return (pBytes + 7) & ~7L;
+	}
+}
@@ -0,0 +1,122 @@
+package com.nukethemoon.tools.ani;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of baked curves keyed by the name of their definition.
+ * The least recently used curve is removed if the cache is full.
+ * The methods are synchronized so a cache can be shared between controllers.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class BakedCurveCache {
+
+	private final int maxEntries;
+	private final LinkedHashMap<String, BakedCurve> curves;
+
+	/**
+	 * Creates a new cache.
+	 * @param pMaxEntries The maximum count of cached curves.
+	 */
+	public BakedCurveCache(final int pMaxEntries) {
+		if (pMaxEntries <= 0) {
+			throw new IllegalArgumentException("The cache needs at least one entry.");
+		}
+		maxEntries = pMaxEntries;
+		curves = new LinkedHashMap<String, BakedCurve>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, BakedCurve> pEldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Gets the curve of a definition and bakes it if it is not cached.
+	 * Use another key for another count of samples of the same definition.
+	 * @param pKey The key of the definition.
+	 * @param pSource The source to bake if the curve is not cached.
+	 * @param pSampleCount The count of samples to bake.
+	 * @return The baked curve with the count of samples.
+	 * @throws IllegalArgumentException If the curve of the key is cached with another count of samples.
+	 */
+	public synchronized BakedCurve get(String pKey, CurveSource pSource, int pSampleCount) {
+		BakedCurve curve = curves.get(pKey);
+		if (curve == null) {
+			curve = BakedCurve.bake(pSource, pSampleCount);
+			curves.put(pKey, curve);
+		} else if (curve.getSampleCount() != pSampleCount) {
+			throw new IllegalArgumentException("The curve '" + pKey + "' is cached with "
+					+ curve.getSampleCount() + " samples.");
+		}
+		return curve;
+	}
+
+	/**
+	 * Gets a cached curve.
+	 * @param pKey The key of the definition.
+	 * @return The curve or null.
+	 */
+	public synchronized BakedCurve get(String pKey) {
+		return curves.get(pKey);
+	}
+
+	/**
+	 * Removes a curve (e.g. if its definition changed).
+	 * @param pKey The key of the definition.
+	 * @return This instance.
+	 */
+	public synchronized BakedCurveCache remove(String pKey) {
+		curves.remove(pKey);
+		return this;
+	}
+
+	/**
+	 * Removes all curves.
+	 * @return This instance.
+	 */
+	public synchronized BakedCurveCache clear() {
+		curves.clear();
+		return this;
+	}
+
+	public synchronized int size() {
+		return curves.size();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Estimates the heap memory used by all cached curves.
+	 * @return The bytes.
+	 */
+	public synchronized long getMemoryBytes() {
+		long bytes = 0;
+		for (BakedCurve curve : curves.values()) {
+			bytes += curve.getMemoryBytes();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Creates a report of the cached curves from the least to the most recently used.
+	 * One line per curve with its key, samples, channels and estimated bytes.
+	 * @return The report.
+	 */
+	public synchronized String getMemoryReport() {
+		StringBuilder report = new StringBuilder();
+		for (Map.Entry<String, BakedCurve> entry : curves.entrySet()) {
+			BakedCurve curve = entry.getValue();
+			report.append(entry.getKey()).append(": ")
+					.append(curve.getSampleCount()).append(" samples x ")
+					.append(curve.getChannelCount()).append(" channels, ")
+					.append(curve.getMemoryBytes()).append(" bytes\n");
+		}
+		report.append("total: ").append(curves.size()).append(" curves, ")
+				.append(getMemoryBytes()).append(" bytes\n");
+		return report.toString();
+	}
+}
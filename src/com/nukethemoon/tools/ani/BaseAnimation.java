@@ -1,7 +1,15 @@
 package com.nukethemoon.tools.ani;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  *
@@ -11,21 +19,132 @@ import java.util.List;
  */
 public abstract class BaseAnimation {
 
+	/**
+	 * The source of the animation ids.
+	 */
+	private static final AtomicInteger idCounter = new AtomicInteger();
+
+	/**
+	 * True per animation class if it overrides computeProgress.
+	 */
+	private static final Map<Class<?>, Boolean> progressOverrides = new HashMap<Class<?>, Boolean>();
+
 	protected List<AnimationFinishedListener> finishedListenersList;
 	protected AnimationFinishedListener finishedListener; // to avoid instance creation if only one listener is used.
 
-	private long timeStarted;
+	private final int id = idCounter.incrementAndGet();
+
+	/**
+	 * True if computeProgress is overridden. The progress it returns then decides
+	 * the end of a loop instead of the elapsed time.
+	 */
+	private final boolean customProgress = overridesComputeProgress(getClass());
+
 	private int durationMillis;
-	private long timeElapsedOnPause = -1;
 	private long timeStartPlaned = -1;
 
+	/**
+	 * The clock time the elapsed time was last computed at.
+	 */
+	private long timeAnchor;
+
+	/**
+	 * The elapsed animation time over all loops at the time anchor.
+	 */
+	private double elapsedAtAnchor;
+
+	/**
+	 * The speed of the animation. Negative values play the animation in reverse.
+	 */
+	private float playbackRate = 1.0f;
+
 	private boolean lastUpdateCallDone = false;
+	private boolean paused = false;
 	private boolean started = false;
 	private boolean calledOnFinish = false;
 
+	/**
+	 * True if the animation was moved by a seek before it started.
+	 */
+	private boolean seekPending = false;
+
 	private int loopLength = 0;
 	private int loopCount;
 
+	private AnimationClock clock = AnimationClock.SYSTEM;
+
+	/**
+	 * The easing applied to the progress or null.
+	 */
+	private Easing easing;
+
+	/**
+	 * The object that is animated or null.
+	 */
+	private Object target;
+
+	/**
+	 * The weakly referenced target or null.
+	 */
+	private TargetReference weakTarget;
+
+	private String[] tags;
+	private int tagCount = 0;
+
+	/**
+	 * The controller this animation was last added to or null. Kept after the removal
+	 * to trace the finished listeners.
+	 */
+	Ani controller;
+
+	/**
+	 * The slot of this animation in its controller or -1.
+	 */
+	int controllerSlot = -1;
+
+	/**
+	 * The animated property of a target or null.
+	 */
+	private ConflictKey conflictKey;
+
+	/**
+	 * The animation to add after this one finished or null.
+	 */
+	BaseAnimation queuedAnimation;
+
+	/**
+	 * The last animation of the queue behind this running animation or null.
+	 */
+	BaseAnimation queueTail;
+
+	/**
+	 * True while the animation waits in the queue of another animation.
+	 */
+	boolean queued = false;
+
+	/**
+	 * Called by the controller if the animation ends without finishing: it is cancelled,
+	 * replaced, dropped from a queue or not added at all. Used by {@link Choreography}.
+	 */
+	AnimationFinishedListener cancelledListener;
+
+	/**
+	 * The cue points sorted by progress and their listeners.
+	 */
+	private float[] cueProgress;
+	private AnimationCueListener[] cueListeners;
+	private int cueCount = 0;
+
+	/**
+	 * The index between the passed and the pending cues of the current loop.
+	 */
+	private int cueCursor = 0;
+
+	/**
+	 * The last progress passed to onProgress before the easing.
+	 */
+	private float lastProgress;
+
 
 	/**
 	 * Creates a new instance.
@@ -52,6 +171,75 @@ public abstract class BaseAnimation {
 	 */
 	protected abstract void onProgress(float pProgress);
 
+	/**
+	 * Passes the progress through the easing to onProgress.
+	 */
+	private void applyProgress(float pProgress) {
+		lastProgress = pProgress;
+		if (easing == null) {
+			onProgress(pProgress);
+		} else {
+			onProgress(easing.apply(pProgress));
+		}
+		if (cueCount > 0) {
+			dispatchCues(pProgress);
+		}
+	}
+
+	/**
+	 * Calls the listeners of all pending cues up to the progress in playback order.
+	 */
+	private void dispatchCues(float pProgress) {
+		if (isReversed()) {
+			while (cueCursor > 0 && cueProgress[cueCursor - 1] >= pProgress) {
+				cueCursor--;
+				cueListeners[cueCursor].onCue(this, cueProgress[cueCursor]);
+			}
+		} else {
+			while (cueCursor < cueCount && cueProgress[cueCursor] <= pProgress) {
+				int index = cueCursor++;
+				cueListeners[index].onCue(this, cueProgress[index]);
+			}
+		}
+	}
+
+	/**
+	 * Marks all cues as pending for a new run through.
+	 */
+	private void resetCues() {
+		cueCursor = isReversed() ? cueCount : 0;
+	}
+
+	/**
+	 * Marks the cues up to the progress as passed without calling them.
+	 */
+	private void positionCues(float pProgress) {
+		if (isReversed()) {
+			cueCursor = findCueIndex(pProgress, false);
+		} else {
+			cueCursor = findCueIndex(pProgress, true);
+		}
+	}
+
+	/**
+	 * Gets the count of cues before the progress.
+	 * @param pInclusive True to count cues at the progress too.
+	 */
+	private int findCueIndex(float pProgress, boolean pInclusive) {
+		int low = 0;
+		int high = cueCount;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			float cue = cueProgress[middle];
+			if (cue < pProgress || (pInclusive && cue == pProgress)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
 	/**
 	 * Implement this method to apply the finish of the animation.
 	 */
@@ -69,20 +257,92 @@ public abstract class BaseAnimation {
 	protected void onLoopStart(int pLoopIndex) {}
 
 	/**
-	 * Computes the progress of the animation at the current time.
+	 * Computes the progress of the current loop at the current time.
+	 * Overrides may change the progress. A value above 1.0 (below 0.0 in reverse)
+	 * ends the loop, so the animation loops or finishes at the time the override decides.
 	 *
-	 * @return The progress between 0.0 and 1.0
+	 * @return The progress between 0.0 and 1.0, or past the end after the loop ended.
 	 */
 	protected float computeProgress() {
-		long tmpTimeStarted;
-		if (isPaused()) {
-			tmpTimeStarted = (System.currentTimeMillis() - timeElapsedOnPause);
-		} else {
-			tmpTimeStarted = timeStarted;
+		double duration = getScaledDuration();
+		if (duration <= 0) {
+			return getEndProgress();
 		}
-		float timeSinceStart = (float) (System.currentTimeMillis() - tmpTimeStarted);
-		float duration = (float) this.durationMillis * Ani.getGlobalTimeFactor();
-		return timeSinceStart / duration;
+		return toProgress((computeElapsed() - loopCount * duration) / duration);
+	}
+
+	/**
+	 * Computes the elapsed animation time over all loops at the current time.
+	 *
+	 * @return The elapsed time in milliseconds.
+	 */
+	private double computeElapsed() {
+		if (paused || !started) {
+			return elapsedAtAnchor;
+		}
+		return elapsedAtAnchor + (clock.getTimeMillis() - timeAnchor) * Math.abs(playbackRate);
+	}
+
+	/**
+	 * Sets the elapsed animation time over all loops starting at the current time.
+	 *
+	 * @param pElapsed The elapsed time in milliseconds.
+	 */
+	private void setElapsed(double pElapsed) {
+		timeAnchor = clock.getTimeMillis();
+		elapsedAtAnchor = pElapsed;
+	}
+
+	private double getScaledDuration() {
+		return (double) durationMillis * Ani.getGlobalTimeFactor();
+	}
+
+	/**
+	 * Converts the time fraction of a loop to the progress depending on the playback direction.
+	 * A fraction past the end of the loop is kept.
+	 */
+	private float toProgress(double pFraction) {
+		float fraction = (float) Math.max(0.0, pFraction);
+		return isReversed() ? 1.0f - fraction : fraction;
+	}
+
+	/**
+	 * Computes the progress of the current loop limited to 0.0 - 1.0.
+	 */
+	private float computeLimitedProgress() {
+		return Math.max(0.0f, Math.min(1.0f, computeProgress()));
+	}
+
+	private boolean isPastEnd(float pProgress) {
+		return isReversed() ? pProgress < 0.0f : pProgress > 1.0f;
+	}
+
+	private static boolean overridesComputeProgress(Class<?> pType) {
+		synchronized (progressOverrides) {
+			Boolean overrides = progressOverrides.get(pType);
+			if (overrides == null) {
+				overrides = Boolean.FALSE;
+				for (Class<?> type = pType; type != BaseAnimation.class; type = type.getSuperclass()) {
+					try {
+						type.getDeclaredMethod("computeProgress");
+						overrides = Boolean.TRUE;
+						break;
+					} catch (NoSuchMethodException e) {
+						// check the super class
+					}
+				}
+				progressOverrides.put(pType, overrides);
+			}
+			return overrides;
+		}
+	}
+
+	private float getStartProgress() {
+		return isReversed() ? 1.0f : 0.0f;
+	}
+
+	private float getEndProgress() {
+		return isReversed() ? 0.0f : 1.0f;
 	}
 
 
@@ -101,23 +361,6 @@ public abstract class BaseAnimation {
 		return (pProgress - pStart) / Math.abs(pEnd - pStart);
 	}
 
-	/**
-	 * Computes the current animation progress (0.0 - 1.0) and returns it.
-	 * Sets the "lastUpdateCallDone" field to true if a 1.0 progress was computed.
-	 *
-	 * @return The current animation progress (0.0 - 1.0)
-	 */
-	protected float handleProgress() {
-		float progress = computeProgress();
-		if (progress > 1f) {
-			progress = 1f; // to guarantee progress 1.0 on end.
-			if (!this.lastUpdateCallDone) {
-				this.lastUpdateCallDone = true;
-			}
-		}
-		return progress;
-	}
-
 	/**
 	 * Starts the animation.
 	 *
@@ -125,21 +368,29 @@ public abstract class BaseAnimation {
 	 */
 	public BaseAnimation start() {
 		if (!hasStarted()) {
-			reset();
-			loopCount = 0;
+			paused = false;
+			calledOnFinish = false;
+			lastUpdateCallDone = false;
+			float startProgress = getStartProgress(); // to guarantee progress 0.0 on start.
+			if (seekPending) {
+				// starts where the seek moved the animation
+				seekPending = false;
+				setElapsed(elapsedAtAnchor);
+				startProgress = computeLimitedProgress();
+			} else {
+				setElapsed(0);
+				loopCount = 0;
+				resetCues();
+			}
+			resetLoop();
 			this.onStart();
-			this.onProgress(0.0f); // to guarantee progress 0.0 on start.
+			applyProgress(startProgress);
 			started = true;
+			trace(AnimationTracer.EVENT_START, startProgress);
 		}
 		return this;
 	}
 
-	private void reset() {
-		this.timeStarted = System.currentTimeMillis();
-		lastUpdateCallDone = false;
-		calledOnFinish = false;
-	}
-
 	/**
 	 * Stops looping the animation. (After the current run through)
 	 *
@@ -165,48 +416,359 @@ public abstract class BaseAnimation {
 	 */
 	public void callAnimationFinishedListeners() {
 		if (finishedListenersList != null) {
-			for (AnimationFinishedListener listener : finishedListenersList) {
-				listener.onAnimationFinished(this);
+			// indexed to avoid an iterator instance per call
+			for (int i = 0; i < finishedListenersList.size(); i++) {
+				callAnimationFinishedListener(finishedListenersList.get(i), i);
 			}
 		} else {
 			if (finishedListener != null) {
-				finishedListener.onAnimationFinished(this);
+				callAnimationFinishedListener(finishedListener, 0);
+			}
+		}
+	}
+
+	private void callAnimationFinishedListener(AnimationFinishedListener pListener, int pListenerIndex) {
+		AnimationTracer tracer = getTracer();
+		if (tracer == null) {
+			pListener.onAnimationFinished(this);
+			return;
+		}
+		tracer.trace(AnimationTracer.EVENT_LISTENER_BEGIN, this, pListenerIndex);
+		pListener.onAnimationFinished(this);
+		tracer.trace(AnimationTracer.EVENT_LISTENER_END, this, pListenerIndex);
+	}
+
+	/**
+	 * Gets the tracer of the controller of this animation.
+	 */
+	private AnimationTracer getTracer() {
+		Ani owner = controller;
+		return owner != null ? owner.getTracer() : null;
+	}
+
+	/**
+	 * Passes an event of this animation to the tracer of its controller if there is one.
+	 */
+	void trace(int pEvent, float pValue) {
+		AnimationTracer tracer = getTracer();
+		if (tracer != null) {
+			tracer.trace(pEvent, this, pValue);
+		}
+	}
+
+	/**
+	 * Computes the current animation progress (0.0 - 1.0) and returns it.
+	 * Passes the loop boundaries since the last update first, so onLoopStart is called
+	 * for every passed boundary. Sets the "lastUpdateCallDone" field to true if the
+	 * last run ended.
+	 *
+	 * @return The current animation progress (0.0 - 1.0)
+	 */
+	protected float handleProgress() {
+		double duration = getScaledDuration();
+		if (customProgress) {
+			return handleCustomProgress(duration);
+		}
+		if (duration > 0) {
+			double elapsed = computeElapsed();
+			while (elapsed > (loopCount + 1) * duration && isLooping()) {
+				applyProgress(getEndProgress()); // to guarantee progress 1.0 on end.
+				// progress ended and new loop
+				loopCount++;
+				trace(AnimationTracer.EVENT_LOOP, loopCount);
+				onLoopStart(loopCount);
+				resetCues();
+				resetLoop();
+				applyProgress(getStartProgress());
 			}
+			lastUpdateCallDone = elapsed > (loopCount + 1) * duration;
+		} else {
+			lastUpdateCallDone = true;
+		}
+
+		return computeLimitedProgress();
+	}
+
+	/**
+	 * Computes the progress of an animation that overrides computeProgress. A progress past
+	 * the end starts the next loop or ends the run. The next loop starts at the time of
+	 * the update, so at most one boundary is passed per update.
+	 */
+	private float handleCustomProgress(double pDuration) {
+		float progress = computeProgress();
+		if (isPastEnd(progress) && isLooping() && pDuration > 0) {
+			applyProgress(getEndProgress()); // to guarantee progress 1.0 on end.
+			loopCount++;
+			trace(AnimationTracer.EVENT_LOOP, loopCount);
+			onLoopStart(loopCount);
+			resetCues();
+			resetLoop();
+			setElapsed(loopCount * pDuration);
+			applyProgress(getStartProgress());
+			progress = computeProgress();
 		}
+		lastUpdateCallDone = pDuration <= 0 || isPastEnd(progress);
+		return Math.max(0.0f, Math.min(1.0f, progress));
 	}
 
 	/**
 	 * Updates the progress. (Usually called by a animation controller)
+	 * Calls onLoopStart for every loop boundary that was passed since the last update.
 	 *
 	 * @return The current progress.
 	 */
 	public float update() {
-
-		if (hasStarted() && isPaused()) {
-			return computeProgress();
+		if (!hasStarted()) {
+			return 0.0f;
+		}
+		if (isPaused()) {
+			return computeLimitedProgress();
 		}
 
-		if (hasStarted() && !isPaused()) {
-			float progress = handleProgress();
-			onProgress(progress);
-			if (lastUpdateCallDone) {
-				if (isLooping()) {
-					// progress ended and new loop
-					reset();
-					loopCount++;
-					onLoopStart(loopCount);
-					return update();
-				} else {
-					// progress ended and not lopping
-					onFinish();
-					calledOnFinish = true;
-					started = false;
-					return progress;
-				}
-			}
+		float progress = handleProgress();
+		applyProgress(progress);
+		if (lastUpdateCallDone) {
+			// progress ended and not looping
+			finish();
 			return progress;
 		}
-		return 0.0f;
+		trace(AnimationTracer.EVENT_PROGRESS, progress);
+		return progress;
+	}
+
+	/**
+	 * Finishes the animation. Used by animations that decide on their own when they are done.
+	 */
+	void finish() {
+		onFinish();
+		calledOnFinish = true;
+		started = false;
+		trace(AnimationTracer.EVENT_FINISH, getEndProgress());
+		endRun();
+	}
+
+	/**
+	 * Called when the current run ended by finishing or by the removal from a controller.
+	 */
+	void endRun() {}
+
+	/**
+	 * Called before the progress of a new loop is applied (on start, a new loop or a rebase).
+	 */
+	void resetLoop() {}
+
+	/**
+	 * Starts the current run again in place with a new duration. Keeps the
+	 * controller slot and does not call onStart.
+	 * @param pDurationMillis The new duration in milliseconds.
+	 */
+	void rebase(int pDurationMillis) {
+		durationMillis = pDurationMillis;
+		loopCount = 0;
+		lastUpdateCallDone = false;
+		setElapsed(0);
+		resetCues();
+		resetLoop();
+	}
+
+	/**
+	 * Gets the last progress passed to onProgress before the easing.
+	 */
+	float getLastProgress() {
+		return lastProgress;
+	}
+
+	/**
+	 * Gets the id of this animation. The id is unique within the running process.
+	 * @return The id.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Moves the animation to a progress of the current loop.
+	 * Calls onProgress with the new progress if the animation is started.
+	 * An animation that is not started yet starts at this progress of the first loop.
+	 *
+	 * @param pProgress The progress between 0.0 and 1.0.
+	 * @return This animation.
+	 */
+	public BaseAnimation seek(float pProgress) {
+		if (!hasStarted()) {
+			loopCount = 0;
+			seekPending = true;
+		}
+		float progress = Math.max(0.0f, Math.min(1.0f, pProgress));
+		double duration = getScaledDuration();
+		float fraction = isReversed() ? 1.0f - progress : progress;
+		setElapsed((loopCount + fraction) * duration);
+		positionCues(progress);
+		if (hasStarted()) {
+			applyProgress(progress);
+		}
+		return this;
+	}
+
+	/**
+	 * Moves the animation to a time over all loops. The loop index is computed
+	 * from the time and onLoopStart is not called for skipped loops.
+	 * Calls onProgress with the new progress if the animation is started.
+	 * An animation that is not started yet starts at this time.
+	 *
+	 * @param pMillis The time since the start of the first loop in milliseconds.
+	 * @return This animation.
+	 */
+	public BaseAnimation seekMillis(long pMillis) {
+		if (!hasStarted()) {
+			seekPending = true;
+		}
+		double duration = getScaledDuration();
+		double elapsed = Math.max(0, pMillis);
+		int loopIndex = duration > 0 ? (int) Math.min(Integer.MAX_VALUE, Math.floor(elapsed / duration)) : 0;
+		if (loopLength != -1 && loopIndex > loopLength) {
+			// the last loop at its end, the next update finishes the animation
+			loopIndex = Math.max(loopLength, 0);
+		}
+		loopCount = loopIndex;
+		setElapsed(elapsed);
+		float progress = computeLimitedProgress();
+		positionCues(progress);
+		if (hasStarted()) {
+			applyProgress(progress);
+		}
+		return this;
+	}
+
+	/**
+	 * Sets the speed of the animation. The value 1.0 is the normal speed.
+	 * Negative values play the animation in reverse (from 1.0 to 0.0).
+	 * Changing the direction keeps the current progress.
+	 *
+	 * @param pPlaybackRate The playback rate.
+	 * @return This animation.
+	 */
+	public BaseAnimation setPlaybackRate(float pPlaybackRate) {
+		double elapsed = computeElapsed();
+		boolean directionChanged = (pPlaybackRate < 0) != isReversed();
+		if (directionChanged) {
+			double duration = getScaledDuration();
+			double loopStart = loopCount * duration;
+			double timeInLoop = Math.max(0, Math.min(duration, elapsed - loopStart));
+			elapsed = loopStart + (duration - timeInLoop);
+		}
+		setElapsed(elapsed);
+		playbackRate = pPlaybackRate;
+		if (directionChanged && hasStarted()) {
+			positionCues(lastProgress);
+		}
+		return this;
+	}
+
+	/**
+	 * Adds a cue point. The listener is called once per loop when the progress passes
+	 * the cue, also if a single update jumps over several cues. Cues are called in
+	 * playback order after onProgress. The progress of a cue is the linear progress
+	 * before the easing. Seeking does not call the skipped cues.
+	 * @param pProgress The progress of the cue between 0.0 and 1.0.
+	 * @param pListener The listener to call.
+	 * @return This animation.
+	 */
+	public BaseAnimation addCue(float pProgress, AnimationCueListener pListener) {
+		if (pProgress < 0.0f || pProgress > 1.0f) {
+			throw new IllegalArgumentException("The progress of a cue must be between 0.0 and 1.0.");
+		}
+		if (cueProgress == null) {
+			cueProgress = new float[4];
+			cueListeners = new AnimationCueListener[4];
+		} else if (cueCount == cueProgress.length) {
+			cueProgress = Arrays.copyOf(cueProgress, cueCount * 2);
+			cueListeners = Arrays.copyOf(cueListeners, cueCount * 2);
+		}
+		// behind cues with the same progress to keep the order of adding
+		int index = findCueIndex(pProgress, true);
+		System.arraycopy(cueProgress, index, cueProgress, index + 1, cueCount - index);
+		System.arraycopy(cueListeners, index, cueListeners, index + 1, cueCount - index);
+		cueProgress[index] = pProgress;
+		cueListeners[index] = pListener;
+		cueCount++;
+		if (hasStarted()) {
+			positionCues(lastProgress);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes all cue points.
+	 * @return This animation.
+	 */
+	public BaseAnimation clearCues() {
+		if (cueCount > 0) {
+			Arrays.fill(cueListeners, 0, cueCount, null);
+		}
+		cueCount = 0;
+		cueCursor = 0;
+		return this;
+	}
+
+	/**
+	 * Sets an easing that is applied to the progress before onProgress is called.
+	 * @param pEasing The easing or null for a linear progress.
+	 * @return This animation.
+	 */
+	public BaseAnimation setEasing(Easing pEasing) {
+		easing = pEasing;
+		return this;
+	}
+
+	/**
+	 * Gets the easing applied to the progress.
+	 * @return The easing or null.
+	 */
+	public Easing getEasing() {
+		return easing;
+	}
+
+	/**
+	 * Gets the duration of one loop.
+	 * @return The duration in milliseconds.
+	 */
+	public int getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * Sets the duration of one loop. Changes the progress of a running animation.
+	 * @param pDurationMillis The duration in milliseconds.
+	 * @return This animation.
+	 */
+	public BaseAnimation setDurationMillis(int pDurationMillis) {
+		durationMillis = pDurationMillis;
+		return this;
+	}
+
+	/**
+	 * Gets the speed of the animation.
+	 * @return The playback rate.
+	 */
+	public float getPlaybackRate() {
+		return playbackRate;
+	}
+
+	/**
+	 * Returns true if the animation is played in reverse.
+	 * @return true if the animation is played in reverse.
+	 */
+	public boolean isReversed() {
+		return playbackRate < 0;
+	}
+
+	/**
+	 * Gets the index of the current loop. The first run has the index 0.
+	 * @return The loop index.
+	 */
+	public int getLoopIndex() {
+		return loopCount;
 	}
 
 	/**
@@ -229,6 +791,24 @@ public abstract class BaseAnimation {
 		return this;
 	}
 
+	/**
+	 * Removes an animation finished listener. Must not be called by a finished listener.
+	 * @param pAnimationFinishedListener The listener to remove.
+	 * @return This animation.
+	 */
+	public BaseAnimation removeFinishedListener(AnimationFinishedListener pAnimationFinishedListener) {
+		if (finishedListenersList != null) {
+			finishedListenersList.remove(pAnimationFinishedListener);
+			if (finishedListenersList.size() <= 1) {
+				finishedListener = finishedListenersList.isEmpty() ? null : finishedListenersList.get(0);
+				finishedListenersList = null;
+			}
+		} else if (finishedListener == pAnimationFinishedListener) {
+			finishedListener = null;
+		}
+		return this;
+	}
+
 	/**
 	 * Return true if the animation is started.
 	 * @return true if the animation is started.
@@ -267,6 +847,10 @@ public abstract class BaseAnimation {
 		return setLoopLength(-1);
 	}
 
+	int getLoopLength() {
+		return loopLength;
+	}
+
 
 	public boolean isLooping() {
 		return getRemainingLoopCount() > 0 || getRemainingLoopCount() == -1;
@@ -278,10 +862,8 @@ public abstract class BaseAnimation {
 	 */
 	public BaseAnimation pause() {
 		if (hasStarted() && !isPaused()) {
-			timeElapsedOnPause = (System.currentTimeMillis() - timeStarted);
-			if (timeElapsedOnPause < 0) {
-				timeElapsedOnPause = 0;
-			}
+			setElapsed(computeElapsed());
+			paused = true;
 		}
 		return this;
 	}
@@ -292,8 +874,8 @@ public abstract class BaseAnimation {
 	 */
 	public BaseAnimation resume() {
 		if (hasStarted() && isPaused()) {
-			timeStarted = (System.currentTimeMillis() - timeElapsedOnPause);
-			timeElapsedOnPause = - 1;
+			timeAnchor = clock.getTimeMillis();
+			paused = false;
 		}
 		return this;
 	}
@@ -316,11 +898,230 @@ public abstract class BaseAnimation {
 		this.timeStartPlaned = timeStartPlaned;
 	}
 
+	/**
+	 * The count of bytes written by writeState.
+	 */
+	static final int STATE_BYTES = 37;
+
+	private static final int STATE_FLAG_STARTED = 1;
+	private static final int STATE_FLAG_PAUSED = 2;
+
+	/**
+	 * Writes the time state of this animation.
+	 * @param pOutput The output to write to.
+	 * @param pNow The current time of the controller.
+	 * @throws IOException If writing fails.
+	 */
+	void writeState(DataOutput pOutput, long pNow) throws IOException {
+		int flags = (started ? STATE_FLAG_STARTED : 0) | (paused ? STATE_FLAG_PAUSED : 0);
+		pOutput.writeByte(flags);
+		pOutput.writeInt(durationMillis);
+		pOutput.writeInt(loopLength);
+		pOutput.writeInt(loopCount);
+		pOutput.writeDouble(started ? computeElapsed() : 0);
+		pOutput.writeFloat(playbackRate);
+		pOutput.writeLong(timeStartPlaned == -1 ? -1 : Math.max(0, timeStartPlaned - pNow));
+		pOutput.writeInt(0); // reserved
+	}
+
+	/**
+	 * Reads the time state written by writeState and continues the animation
+	 * from there. Does not call onStart.
+	 * @param pInput The input to read from.
+	 * @param pNow The current time of the controller.
+	 * @throws IOException If reading fails.
+	 */
+	void readState(DataInput pInput, long pNow) throws IOException {
+		int flags = pInput.readByte();
+		durationMillis = pInput.readInt();
+		loopLength = pInput.readInt();
+		loopCount = pInput.readInt();
+		double elapsed = pInput.readDouble();
+		playbackRate = pInput.readFloat();
+		long startDelay = pInput.readLong();
+		pInput.readInt(); // reserved
+
+		started = (flags & STATE_FLAG_STARTED) != 0;
+		paused = (flags & STATE_FLAG_PAUSED) != 0;
+		calledOnFinish = false;
+		lastUpdateCallDone = false;
+		seekPending = false;
+		timeStartPlaned = startDelay == -1 ? -1 : pNow + startDelay;
+		timeAnchor = pNow;
+		elapsedAtAnchor = elapsed;
+		positionCues(computeLimitedProgress());
+	}
+
+	/**
+	 * Sets the clock this animation reads its time from.
+	 * Usually assigned by the animation controller. The elapsed time is kept.
+	 * @param pClock The clock to use.
+	 * @return This animation.
+	 */
+	public BaseAnimation setClock(AnimationClock pClock) {
+		if (pClock != null && pClock != clock) {
+			// keep the elapsed time and the start delay when the time base changes
+			double elapsed = computeElapsed();
+			long timeShift = pClock.getTimeMillis() - clock.getTimeMillis();
+			clock = pClock;
+			setElapsed(elapsed);
+			if (timeStartPlaned != -1) {
+				timeStartPlaned += timeShift;
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the clock this animation reads its time from.
+	 * @return The clock.
+	 */
+	public AnimationClock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Sets the object that is animated. The controller can address all animations
+	 * of a target (e.g. {@link Ani#cancelByTarget(Object)}).
+	 * Must be set before the animation is added to a controller.
+	 * @param pTarget The target.
+	 * @return This animation.
+	 */
+	public BaseAnimation setTarget(Object pTarget) {
+		checkNotAdded();
+		target = pTarget;
+		weakTarget = null;
+		return this;
+	}
+
+	/**
+	 * Sets the object that is animated without keeping it from being garbage collected.
+	 * If the target is collected the controller cancels the animation without calling
+	 * its listeners. Implementations must read the target with getTarget() and must not
+	 * keep own references to it. Animations with a weak target can not be addressed by
+	 * the target groups of the controller (e.g. {@link Ani#cancelByTarget(Object)}).
+	 * Must be set before the animation is added to a controller.
+	 * @param pTarget The target.
+	 * @return This animation.
+	 */
+	public BaseAnimation setWeakTarget(Object pTarget) {
+		checkNotAdded();
+		target = null;
+		weakTarget = pTarget != null ? new TargetReference(pTarget, null, this) : null;
+		if (conflictKey != null && conflictKey.getTarget() == pTarget) {
+			conflictKey = new ConflictKey(pTarget, conflictKey.getProperty(), true);
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the object that is animated.
+	 * @return The target or null (also if a weak target was garbage collected).
+	 */
+	public Object getTarget() {
+		return weakTarget != null ? weakTarget.get() : target;
+	}
+
+	/**
+	 * Returns true if the target is referenced weakly.
+	 */
+	boolean hasWeakTarget() {
+		return weakTarget != null;
+	}
+
+	/**
+	 * Registers the weak target at the reference queue of a controller.
+	 * @return False if the target was already garbage collected.
+	 */
+	boolean registerWeakTarget(ReferenceQueue<Object> pQueue) {
+		Object currentTarget = weakTarget.get();
+		if (currentTarget == null) {
+			return false;
+		}
+		weakTarget = new TargetReference(currentTarget, pQueue, this);
+		return true;
+	}
+
+	/**
+	 * Sets the animated property of a target. A controller does not run two animations
+	 * with the same target and property at the same time. What happens to the second
+	 * animation depends on the {@link ConflictPolicy} of the controller.
+	 * Must be set before the animation is added to a controller.
+	 * @param pTarget The animated object.
+	 * @param pProperty The animated property (e.g. "alpha").
+	 * @return This animation.
+	 */
+	public BaseAnimation setConflictKey(Object pTarget, String pProperty) {
+		checkNotAdded();
+		if (pTarget == null || pProperty == null) {
+			conflictKey = null;
+		} else {
+			boolean weak = weakTarget != null && weakTarget.get() == pTarget;
+			conflictKey = new ConflictKey(pTarget, pProperty, weak);
+		}
+		return this;
+	}
+
+	ConflictKey getConflictKey() {
+		return conflictKey;
+	}
+
+	/**
+	 * Adds a tag. The controller can address all animations with a tag
+	 * (e.g. {@link Ani#pauseByTag(String)}).
+	 * Must be added before the animation is added to a controller.
+	 * @param pTag The tag to add.
+	 * @return This animation.
+	 */
+	public BaseAnimation addTag(String pTag) {
+		checkNotAdded();
+		if (pTag == null || hasTag(pTag)) {
+			return this;
+		}
+		if (tags == null) {
+			tags = new String[2];
+		} else if (tagCount == tags.length) {
+			String[] newTags = new String[tags.length * 2];
+			System.arraycopy(tags, 0, newTags, 0, tagCount);
+			tags = newTags;
+		}
+		tags[tagCount++] = pTag;
+		return this;
+	}
+
+	/**
+	 * Returns true if this animation has the tag.
+	 * @param pTag The tag.
+	 * @return true if this animation has the tag.
+	 */
+	public boolean hasTag(String pTag) {
+		for (int i = 0; i < tagCount; i++) {
+			if (tags[i].equals(pTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	String[] getTags() {
+		return tags;
+	}
+
+	int getTagCount() {
+		return tagCount;
+	}
+
+	private void checkNotAdded() {
+		if (controllerSlot != -1) {
+			throw new IllegalStateException("The animation is already added to a controller.");
+		}
+	}
+
 	/**
 	 * Returns true if this animation is paused.
 	 * @return true if this animation is paused.
 	 */
 	public boolean isPaused() {
-		return timeElapsedOnPause >= 0;
+		return paused;
 	}
 }
@@ -0,0 +1,50 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * A path of cubic Bezier segments. Each segment shares its first point
+ * with the last point of the previous segment.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public final class BezierPath extends AnimationPath {
+
+	private final float[] points;
+	private final int segmentCount;
+
+	/**
+	 * Creates a new path with the default sampling.
+	 * @param pPoints The control points as x and y pairs: start, (control 1, control 2, end)+
+	 */
+	public BezierPath(float... pPoints) {
+		this(pPoints, DEFAULT_SAMPLES_PER_SEGMENT);
+	}
+
+	/**
+	 * Creates a new path.
+	 * @param pPoints The control points as x and y pairs: start, (control 1, control 2, end)+
+	 * @param pSamplesPerSegment The count of arc length samples per segment.
+	 */
+	public BezierPath(float[] pPoints, int pSamplesPerSegment) {
+		if (pPoints.length < 8 || (pPoints.length - 2) % 6 != 0) {
+			throw new IllegalArgumentException("A Bezier path needs 3 * n + 1 points.");
+		}
+		points = pPoints.clone();
+		segmentCount = (pPoints.length - 2) / 6;
+		buildTable(segmentCount * pSamplesPerSegment);
+	}
+
+	@Override
+	protected void evaluate(float pT, float[] pOut) {
+		float scaled = Math.max(0.0f, Math.min(1.0f, pT)) * segmentCount;
+		int segment = Math.min((int) scaled, segmentCount - 1);
+		float t = scaled - segment;
+		float u = 1.0f - t;
+		float b0 = u * u * u;
+		float b1 = 3.0f * u * u * t;
+		float b2 = 3.0f * u * t * t;
+		float b3 = t * t * t;
+		int i = segment * 6;
+		pOut[0] = b0 * points[i] + b1 * points[i + 2] + b2 * points[i + 4] + b3 * points[i + 6];
+		pOut[1] = b0 * points[i + 1] + b1 * points[i + 3] + b2 * points[i + 5] + b3 * points[i + 7];
+	}
+}
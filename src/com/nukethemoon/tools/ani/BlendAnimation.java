@@ -0,0 +1,92 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation that contributes a layer to a {@link BlendChannel} instead of
+ * setting a property itself. The layer is part of the channel while the animation
+ * is in a controller, also while it is paused (with its last values).
+ * The channel is added to the controller of the animation if it was not added to a controller yet.
+ * A channel that was removed from its controller is not added again by its layers.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class BlendAnimation extends BaseAnimation {
+
+	private final BlendChannel channel;
+	private final boolean additive;
+	private final float[] values;
+	private float weight = 1.0f;
+
+	/**
+	 * The index of the layer in the channel or -1.
+	 */
+	int layerIndex = -1;
+
+	/**
+	 * Creates a new animation.
+	 * @param pChannel The channel to contribute to.
+	 * @param pAdditive True to add the values on top of the blended result,
+	 *                     false to blend them with the base values by the weight.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public BlendAnimation(BlendChannel pChannel, boolean pAdditive, int pDurationMillis) {
+		super(pDurationMillis);
+		if (pChannel == null) {
+			throw new IllegalArgumentException("The channel must not be null.");
+		}
+		channel = pChannel;
+		additive = pAdditive;
+		values = new float[pChannel.getComponentCount()];
+	}
+
+	/**
+	 * Computes the values of the layer.
+	 * @param pProgress The progress of the animation.
+	 * @param pValues One value per component of the channel. Keeps the values of the last call.
+	 */
+	protected abstract void onBlend(float pProgress, float[] pValues);
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		onBlend(pProgress, values);
+		if (layerIndex != -1) {
+			channel.markDirty();
+		} else if (!channel.detached) {
+			if (channel.controller == null && controller != null) {
+				controller.addBlendChannel(channel);
+			}
+			channel.addLayer(this);
+		}
+	}
+
+	/**
+	 * Sets the weight of the layer. Default is 1.0.
+	 * @param pWeight The factor of the values.
+	 * @return This animation.
+	 */
+	public BlendAnimation setWeight(float pWeight) {
+		weight = pWeight;
+		if (layerIndex != -1) {
+			channel.markDirty();
+		}
+		return this;
+	}
+
+	public float getWeight() {
+		return weight;
+	}
+
+	public boolean isAdditive() {
+		return additive;
+	}
+
+	public BlendChannel getChannel() {
+		return channel;
+	}
+
+	/**
+	 * Gets the values of the last call of onBlend.
+	 */
+	float[] getValues() {
+		return values;
+	}
+}
@@ -0,0 +1,170 @@
+package com.nukethemoon.tools.ani;
+
+import java.util.Arrays;
+
+/**
+ * Blends the layers of several {@link BlendAnimation}s that drive the same property.
+ * A channel is applied by one controller. It is added when the first layer is updated
+ * by a controller or by {@link Ani#addBlendChannel(BlendChannel)}. The channel passes
+ * the result to its listener once per {@link Ani#update()}, after all animations were
+ * updated. Frames without a change do not call the listener.
+ * <p>
+ * The result of a component is computed in two steps:
+ * <ol>
+ *     <li>The weighted layers are blended with the base value. The base keeps the weight
+ *     that is left to 1.0. If the weights sum up to more than 1.0 they are normalized
+ *     and the base is not used.</li>
+ *     <li>The additive layers are added multiplied by their weight.</li>
+ * </ol>
+ * The result does not depend on the order of the animations.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class BlendChannel {
+
+	private final float[] base;
+	private final float[] values;
+	private final BlendListener listener;
+
+	private BlendAnimation[] layers = new BlendAnimation[4];
+	private int layerCount = 0;
+
+	/**
+	 * The controller that applies this channel or null.
+	 */
+	Ani controller;
+
+	/**
+	 * True if the channel was removed from its controller. Layers are not added
+	 * until the channel is added to a controller again.
+	 */
+	boolean detached;
+
+	/**
+	 * True if the values need to be computed at the end of the frame.
+	 */
+	private boolean dirty = true;
+
+	/**
+	 * Creates a new channel. The base values are 0.0.
+	 * @param pComponentCount The count of values per layer (e.g. 2 for a position).
+	 * @param pListener Receives the blended values.
+	 */
+	public BlendChannel(int pComponentCount, BlendListener pListener) {
+		if (pComponentCount < 1) {
+			throw new IllegalArgumentException("A channel needs at least one component.");
+		}
+		if (pListener == null) {
+			throw new IllegalArgumentException("The listener must not be null.");
+		}
+		base = new float[pComponentCount];
+		values = new float[pComponentCount];
+		listener = pListener;
+	}
+
+	/**
+	 * Sets a base value. It is the result if no animation contributes.
+	 * @param pComponent The index of the component.
+	 * @param pValue The base value.
+	 * @return This instance.
+	 */
+	public BlendChannel setBase(int pComponent, float pValue) {
+		base[pComponent] = pValue;
+		dirty = true;
+		return this;
+	}
+
+	public float getBase(int pComponent) {
+		return base[pComponent];
+	}
+
+	/**
+	 * Gets a value of the last result passed to the listener.
+	 * @param pComponent The index of the component.
+	 * @return The blended value.
+	 */
+	public float getValue(int pComponent) {
+		return values[pComponent];
+	}
+
+	public int getComponentCount() {
+		return base.length;
+	}
+
+	/**
+	 * Returns the count of layers that contributed to the last result.
+	 * @return The count of layers.
+	 */
+	public int getLayerCount() {
+		return layerCount;
+	}
+
+	void addLayer(BlendAnimation pAnimation) {
+		if (layerCount == layers.length) {
+			layers = Arrays.copyOf(layers, layerCount * 2);
+		}
+		pAnimation.layerIndex = layerCount;
+		layers[layerCount++] = pAnimation;
+		dirty = true;
+	}
+
+	void removeLayers() {
+		for (int i = layerCount - 1; i >= 0; i--) {
+			removeLayer(i);
+		}
+	}
+
+	private void removeLayer(int pIndex) {
+		BlendAnimation animation = layers[pIndex];
+		BlendAnimation last = layers[--layerCount];
+		layers[pIndex] = last;
+		last.layerIndex = pIndex;
+		layers[layerCount] = null;
+		animation.layerIndex = -1;
+		dirty = true;
+	}
+
+	void markDirty() {
+		dirty = true;
+	}
+
+	/**
+	 * Removes the layers of animations that left their controller, blends the
+	 * layers and passes the result to the listener if something changed.
+	 * (Called by the controller at the end of a frame)
+	 */
+	void apply() {
+		// finished and canceled animations
+		for (int i = layerCount - 1; i >= 0; i--) {
+			if (layers[i].controllerSlot == -1) {
+				removeLayer(i);
+			}
+		}
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+
+		float weightSum = 0.0f;
+		for (int i = 0; i < layerCount; i++) {
+			if (!layers[i].isAdditive()) {
+				weightSum += layers[i].getWeight();
+			}
+		}
+		float baseWeight = weightSum < 1.0f ? 1.0f - weightSum : 0.0f;
+		float layerScale = weightSum > 1.0f ? 1.0f / weightSum : 1.0f;
+
+		for (int c = 0; c < values.length; c++) {
+			values[c] = base[c] * baseWeight;
+		}
+		for (int i = 0; i < layerCount; i++) {
+			BlendAnimation layer = layers[i];
+			float factor = layer.isAdditive() ? layer.getWeight() : layer.getWeight() * layerScale;
+			float[] layerValues = layer.getValues();
+			for (int c = 0; c < values.length; c++) {
+				values[c] += layerValues[c] * factor;
+			}
+		}
+		listener.onBlend(values);
+	}
+}
@@ -0,0 +1,15 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Receives the blended values of a {@link BlendChannel}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface BlendListener {
+
+	/**
+	 * Called at the end of a frame if the blended values changed.
+	 * @param pValues One value per component. The array is reused for every call.
+	 */
+	void onBlend(float[] pValues);
+}
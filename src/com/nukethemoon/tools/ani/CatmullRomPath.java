@@ -0,0 +1,57 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * A Catmull-Rom spline that passes through all of its points.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public final class CatmullRomPath extends AnimationPath {
+
+	private final float[] points;
+	private final int segmentCount;
+
+	/**
+	 * Creates a new path with the default sampling.
+	 * @param pPoints At least two points as x and y pairs.
+	 */
+	public CatmullRomPath(float... pPoints) {
+		this(pPoints, DEFAULT_SAMPLES_PER_SEGMENT);
+	}
+
+	/**
+	 * Creates a new path.
+	 * @param pPoints At least two points as x and y pairs.
+	 * @param pSamplesPerSegment The count of arc length samples per segment.
+	 */
+	public CatmullRomPath(float[] pPoints, int pSamplesPerSegment) {
+		if (pPoints.length < 4 || pPoints.length % 2 != 0) {
+			throw new IllegalArgumentException("A Catmull-Rom path needs at least two points.");
+		}
+		points = pPoints.clone();
+		segmentCount = pPoints.length / 2 - 1;
+		buildTable(segmentCount * pSamplesPerSegment);
+	}
+
+	@Override
+	protected void evaluate(float pT, float[] pOut) {
+		float scaled = Math.max(0.0f, Math.min(1.0f, pT)) * segmentCount;
+		int segment = Math.min((int) scaled, segmentCount - 1);
+		float t = scaled - segment;
+		int pointCount = segmentCount + 1;
+		// the end points are repeated for the outer segments
+		int p0 = Math.max(segment - 1, 0) * 2;
+		int p1 = segment * 2;
+		int p2 = (segment + 1) * 2;
+		int p3 = Math.min(segment + 2, pointCount - 1) * 2;
+		pOut[0] = interpolate(points[p0], points[p1], points[p2], points[p3], t);
+		pOut[1] = interpolate(points[p0 + 1], points[p1 + 1], points[p2 + 1], points[p3 + 1], t);
+	}
+
+	private static float interpolate(float pP0, float pP1, float pP2, float pP3, float pT) {
+		float t2 = pT * pT;
+		float t3 = t2 * pT;
+		return 0.5f * ((2.0f * pP1) + (-pP0 + pP2) * pT
+				+ (2.0f * pP0 - 5.0f * pP1 + 4.0f * pP2 - pP3) * t2
+				+ (-pP0 + 3.0f * pP1 - 3.0f * pP2 + pP3) * t3);
+	}
+}
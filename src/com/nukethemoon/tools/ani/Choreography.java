@@ -0,0 +1,237 @@
+package com.nukethemoon.tools.ani;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a choreography of animations as sequential code instead of nested listeners.
+ * The script runs on its own thread (a virtual thread on Java 21+) and waits while
+ * its animations play. The animations are added on the thread that updates the controller.
+ * <pre>
+ * Choreography.start(ani, new Choreography.Script() {
+ *     public void run(Choreography pChoreography) throws InterruptedException {
+ *         pChoreography.play(fadeA);
+ *         pChoreography.playAll(moveB, moveC);
+ *         pChoreography.sleep(200);
+ *         pChoreography.play(pulseD.setLoopLength(1));
+ *     }
+ * });
+ * </pre>
+ * If an animation is cancelled, replaced, dropped from a queue or not added by the
+ * controller, the play call throws a {@link CancellationException} after the other
+ * animations of the call ended.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class Choreography {
+
+	/**
+	 * The sequential code of a choreography.
+	 */
+	public interface Script {
+
+		/**
+		 * Plays the choreography.
+		 * @param pChoreography The choreography to play the animations with.
+		 * @throws InterruptedException If the choreography is cancelled.
+		 */
+		void run(Choreography pChoreography) throws InterruptedException;
+	}
+
+	/**
+	 * An animation that only takes time.
+	 */
+	private static class Pause extends BaseAnimation {
+
+		Pause(int pDurationMillis) {
+			super(pDurationMillis);
+		}
+
+		@Override
+		protected void onProgress(float pProgress) { }
+	}
+
+	/**
+	 * The animations of one play call. The listeners are called on the thread that
+	 * updates the controller.
+	 */
+	private static class Playback {
+
+		private final BaseAnimation[] animations;
+		private final boolean[] ended;
+		private final CountDownLatch done;
+
+		/**
+		 * Written before the count down, so the script reads it after waiting.
+		 */
+		private boolean cancelled = false;
+
+		private final AnimationFinishedListener finishedListener = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				end(pAnimation, false);
+			}
+		};
+
+		private final AnimationFinishedListener cancelledListener = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				end(pAnimation, true);
+			}
+		};
+
+		Playback(BaseAnimation[] pAnimations) {
+			animations = pAnimations;
+			ended = new boolean[pAnimations.length];
+			done = new CountDownLatch(pAnimations.length);
+		}
+
+		private void end(BaseAnimation pAnimation, boolean pCancelled) {
+			for (int i = 0; i < animations.length; i++) {
+				if (animations[i] == pAnimation && !ended[i]) {
+					ended[i] = true;
+					if (pCancelled) {
+						cancelled = true;
+					}
+					done.countDown();
+					return;
+				}
+			}
+		}
+	}
+
+	private final Ani ani;
+	private final CountDownLatch done = new CountDownLatch(1);
+	private volatile Thread thread;
+	private volatile Throwable failure;
+
+	private Choreography(Ani pAni) {
+		ani = pAni;
+	}
+
+	/**
+	 * Starts a script on its own thread.
+	 * @param pAni The controller to play the animations with.
+	 * @param pScript The script.
+	 * @return The running choreography.
+	 */
+	public static Choreography start(Ani pAni, final Script pScript) {
+		final Choreography choreography = new Choreography(pAni);
+		choreography.thread = Platform.startThread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					pScript.run(choreography);
+				} catch (InterruptedException e) {
+					// cancelled
+				} catch (Throwable t) {
+					choreography.failure = t;
+				} finally {
+					choreography.done.countDown();
+				}
+			}
+		}, "Ani choreography");
+		return choreography;
+	}
+
+	/**
+	 * Plays an animation and waits until it finished. Call it from the script only.
+	 * @param pAnimation The animation to play.
+	 * @throws InterruptedException If the choreography is cancelled.
+	 * @throws CancellationException If the animation was cancelled or not added.
+	 */
+	public void play(BaseAnimation pAnimation) throws InterruptedException {
+		playAll(pAnimation);
+	}
+
+	/**
+	 * Plays animations together and waits until all of them finished. Call it from the script only.
+	 * @param pAnimations The animations to play.
+	 * @throws InterruptedException If the choreography is cancelled.
+	 * @throws CancellationException If an animation was cancelled or not added.
+	 */
+	public void playAll(final BaseAnimation... pAnimations) throws InterruptedException {
+		if (pAnimations.length == 0) {
+			return;
+		}
+		final Playback playback = new Playback(pAnimations);
+		ani.post(new Runnable() {
+			@Override
+			public void run() {
+				for (BaseAnimation animation : pAnimations) {
+					animation.addFinishedListener(playback.finishedListener);
+					animation.cancelledListener = playback.cancelledListener;
+					ani.add(animation);
+				}
+			}
+		});
+		try {
+			playback.done.await();
+		} finally {
+			// the controller thread owns the listeners of the animations
+			ani.post(new Runnable() {
+				@Override
+				public void run() {
+					for (BaseAnimation animation : pAnimations) {
+						animation.removeFinishedListener(playback.finishedListener);
+						if (animation.cancelledListener == playback.cancelledListener) {
+							animation.cancelledListener = null;
+						}
+					}
+				}
+			});
+		}
+		if (playback.cancelled) {
+			throw new CancellationException("An animation of the choreography was cancelled or not added.");
+		}
+	}
+
+	/**
+	 * Waits for a time of the controller. Uses the clock and the global time factor of
+	 * the animations. Call it from the script only.
+	 * @param pMillis The time to wait in milliseconds.
+	 * @throws InterruptedException If the choreography is cancelled.
+	 */
+	public void sleep(int pMillis) throws InterruptedException {
+		play(new Pause(pMillis));
+	}
+
+	/**
+	 * Stops the script. Animations that are already playing are not cancelled.
+	 * @return This instance.
+	 */
+	public Choreography cancel() {
+		Thread scriptThread = thread;
+		if (scriptThread != null) {
+			scriptThread.interrupt();
+		}
+		return this;
+	}
+
+	/**
+	 * Waits until the script ended.
+	 * @param pTimeoutMillis The maximum time to wait in milliseconds.
+	 * @return True if the script ended.
+	 * @throws InterruptedException If the waiting thread is interrupted.
+	 */
+	public boolean join(long pTimeoutMillis) throws InterruptedException {
+		return done.await(pTimeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns true if the script ended.
+	 * @return true if the script ended.
+	 */
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * Gets the exception the script ended with.
+	 * @return The exception or null.
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+}
@@ -0,0 +1,55 @@
+package com.nukethemoon.tools.ani;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Identifies a property of a target object. Targets are compared by identity.
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class ConflictKey {
+
+	private final Object target;
+	private final WeakReference<Object> weakTarget;
+	private final String property;
+	private final int hashCode;
+
+	ConflictKey(Object pTarget, String pProperty) {
+		this(pTarget, pProperty, false);
+	}
+
+	/**
+	 * @param pWeak True to not keep the target from being garbage collected.
+	 */
+	ConflictKey(Object pTarget, String pProperty, boolean pWeak) {
+		target = pWeak ? null : pTarget;
+		weakTarget = pWeak ? new WeakReference<Object>(pTarget) : null;
+		property = pProperty;
+		hashCode = 31 * System.identityHashCode(pTarget) + pProperty.hashCode();
+	}
+
+	Object getTarget() {
+		return weakTarget != null ? weakTarget.get() : target;
+	}
+
+	String getProperty() {
+		return property;
+	}
+
+	@Override
+	public boolean equals(Object pObject) {
+		if (this == pObject) {
+			return true;
+		}
+		if (!(pObject instanceof ConflictKey)) {
+			return false;
+		}
+		ConflictKey other = (ConflictKey) pObject;
+		return getTarget() == other.getTarget() && property.equals(other.property);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
@@ -0,0 +1,28 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Defines how a controller handles an animation that is added while another
+ * animation with the same conflict key is running.
+ * See {@link BaseAnimation#setConflictKey(Object, String)}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public enum ConflictPolicy {
+
+	/**
+	 * Cancels the running animation and adds the new one.
+	 */
+	REPLACE,
+
+	/**
+	 * Adds the new animation after the running animation (and all animations
+	 * queued before) finished. An animation that already waits in a queue is not
+	 * queued twice. Canceling or stopping the running animation drops its queue.
+	 */
+	QUEUE,
+
+	/**
+	 * Ignores the new animation.
+	 */
+	IGNORE
+}
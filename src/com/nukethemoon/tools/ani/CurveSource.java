@@ -0,0 +1,24 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * A deterministic function from the progress to the values of one or more channels
+ * (e.g. composite easings of position, scale and alpha). Can be baked into a
+ * {@link BakedCurve}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface CurveSource {
+
+	/**
+	 * Gets the count of channels.
+	 * @return The count of channels.
+	 */
+	int getChannelCount();
+
+	/**
+	 * Computes the values of all channels. Must return the same values for the same progress.
+	 * @param pProgress The progress between 0.0 and 1.0.
+	 * @param pValues The array to write one value per channel to.
+	 */
+	void evaluate(float pProgress, float[] pValues);
+}
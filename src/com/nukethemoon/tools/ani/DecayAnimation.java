@@ -0,0 +1,58 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation that moves a value with a start velocity that decays by friction
+ * (e.g. after a fling gesture). Implement onValue to apply the value.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class DecayAnimation extends PhysicsAnimation {
+
+	private final float friction;
+	private float velocityThreshold = 0.01f;
+
+	/**
+	 * The velocity factor of one step and the step it was computed for.
+	 */
+	private float stepDecay = 1.0f;
+	private float stepDecaySeconds = -1.0f;
+
+	/**
+	 * Creates a new instance.
+	 * @param pFrom The start value.
+	 * @param pVelocity The start velocity in units per second.
+	 * @param pFriction The decay rate of the velocity per second. Must be higher than 0.
+	 */
+	public DecayAnimation(float pFrom, float pVelocity, float pFriction) {
+		super(pFrom, pVelocity);
+		if (pFriction <= 0) {
+			throw new IllegalArgumentException("The friction must be higher than 0.");
+		}
+		friction = pFriction;
+	}
+
+	@Override
+	protected boolean step(float pStepSeconds) {
+		if (pStepSeconds != stepDecaySeconds) {
+			stepDecay = (float) Math.exp(-friction * pStepSeconds);
+			stepDecaySeconds = pStepSeconds;
+		}
+		velocity *= stepDecay;
+		value += velocity * pStepSeconds;
+		if (Math.abs(velocity) < velocityThreshold) {
+			velocity = 0.0f;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the limit to detect a stopped movement.
+	 * @param pVelocity The maximum velocity in units per second.
+	 * @return This animation.
+	 */
+	public DecayAnimation setSettleThreshold(float pVelocity) {
+		velocityThreshold = pVelocity;
+		return this;
+	}
+}
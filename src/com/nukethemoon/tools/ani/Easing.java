@@ -0,0 +1,17 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Maps a linear progress to an eased progress.
+ * See {@link Easings} for common implementations.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface Easing {
+
+	/**
+	 * Applies the easing.
+	 * @param pProgress The linear progress between 0.0 and 1.0.
+	 * @return The eased progress. Should be 0.0 for 0.0 and 1.0 for 1.0.
+	 */
+	float apply(float pProgress);
+}
@@ -0,0 +1,110 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Common easings.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public final class Easings {
+
+	private Easings() {}
+
+	public static final Easing LINEAR = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return pProgress;
+		}
+	};
+
+	public static final Easing QUAD_IN = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return pProgress * pProgress;
+		}
+	};
+
+	public static final Easing QUAD_OUT = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return pProgress * (2.0f - pProgress);
+		}
+	};
+
+	public static final Easing QUAD_IN_OUT = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			if (pProgress < 0.5f) {
+				return 2.0f * pProgress * pProgress;
+			}
+			return -1.0f + (4.0f - 2.0f * pProgress) * pProgress;
+		}
+	};
+
+	public static final Easing CUBIC_IN = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return pProgress * pProgress * pProgress;
+		}
+	};
+
+	public static final Easing CUBIC_OUT = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			float inverse = 1.0f - pProgress;
+			return 1.0f - inverse * inverse * inverse;
+		}
+	};
+
+	public static final Easing CUBIC_IN_OUT = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			if (pProgress < 0.5f) {
+				return 4.0f * pProgress * pProgress * pProgress;
+			}
+			float inverse = -2.0f * pProgress + 2.0f;
+			return 1.0f - inverse * inverse * inverse / 2.0f;
+		}
+	};
+
+	public static final Easing SINE_IN = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return 1.0f - (float) Math.cos(pProgress * Math.PI / 2.0);
+		}
+	};
+
+	public static final Easing SINE_OUT = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return (float) Math.sin(pProgress * Math.PI / 2.0);
+		}
+	};
+
+	public static final Easing SINE_IN_OUT = new Easing() {
+		@Override
+		public float apply(float pProgress) {
+			return (float) (-(Math.cos(Math.PI * pProgress) - 1.0) / 2.0);
+		}
+	};
+
+	/**
+	 * Gets an easing by its name (e.g. "linear", "quadIn", "cubicInOut").
+	 * @param pName The name of the easing.
+	 * @return The easing or null if there is no easing with the name.
+	 */
+	public static Easing forName(String pName) {
+		switch (pName) {
+			case "linear": return LINEAR;
+			case "quadIn": return QUAD_IN;
+			case "quadOut": return QUAD_OUT;
+			case "quadInOut": return QUAD_IN_OUT;
+			case "cubicIn": return CUBIC_IN;
+			case "cubicOut": return CUBIC_OUT;
+			case "cubicInOut": return CUBIC_IN_OUT;
+			case "sineIn": return SINE_IN;
+			case "sineOut": return SINE_OUT;
+			case "sineInOut": return SINE_IN_OUT;
+			default: return null;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.nukethemoon.tools.ani;
+
+import java.nio.FloatBuffer;
+
+/**
+ * An animation that interpolates whole float arrays (e.g. vertex positions or colors)
+ * between two sources and writes the result directly into a destination array or
+ * buffer (e.g. a direct buffer for the GPU upload). No intermediate arrays are used.
+ * Override onValuesWritten to react on new values.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class FloatBufferTween extends BaseAnimation {
+
+	private final int count;
+
+	private final float[] fromArray;
+	private final float[] toArray;
+	private final float[] destinationArray;
+
+	private final FloatBuffer fromBuffer;
+	private final FloatBuffer toBuffer;
+	private final FloatBuffer destinationBuffer;
+
+	private final int fromOffset;
+	private final int toOffset;
+	private final int destinationOffset;
+
+	/**
+	 * The easings per element or null.
+	 */
+	private Easing[] elementEasings;
+
+	/**
+	 * Creates a tween from arrays into an array.
+	 * @param pFrom The start values.
+	 * @param pTo The end values.
+	 * @param pDestination The array to write to.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public FloatBufferTween(float[] pFrom, float[] pTo, float[] pDestination, int pDurationMillis) {
+		super(pDurationMillis);
+		count = checkCount(pFrom.length, pTo.length, pDestination.length);
+		fromArray = pFrom;
+		toArray = pTo;
+		destinationArray = pDestination;
+		fromBuffer = null;
+		toBuffer = null;
+		destinationBuffer = null;
+		fromOffset = 0;
+		toOffset = 0;
+		destinationOffset = 0;
+	}
+
+	/**
+	 * Creates a tween from arrays into a buffer. Writes from the position of the buffer
+	 * and does not change the position.
+	 * @param pFrom The start values.
+	 * @param pTo The end values.
+	 * @param pDestination The buffer to write to.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public FloatBufferTween(float[] pFrom, float[] pTo, FloatBuffer pDestination, int pDurationMillis) {
+		this(FloatBuffer.wrap(pFrom), FloatBuffer.wrap(pTo), pDestination, pDurationMillis);
+	}
+
+	/**
+	 * Creates a tween from buffers into a buffer. Reads and writes from the positions
+	 * of the buffers and does not change the positions.
+	 * @param pFrom The start values.
+	 * @param pTo The end values.
+	 * @param pDestination The buffer to write to.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public FloatBufferTween(FloatBuffer pFrom, FloatBuffer pTo, FloatBuffer pDestination, int pDurationMillis) {
+		super(pDurationMillis);
+		count = checkCount(pFrom.remaining(), pTo.remaining(), pDestination.remaining());
+		fromArray = null;
+		toArray = null;
+		destinationArray = null;
+		fromBuffer = pFrom;
+		toBuffer = pTo;
+		destinationBuffer = pDestination;
+		fromOffset = pFrom.position();
+		toOffset = pTo.position();
+		destinationOffset = pDestination.position();
+	}
+
+	private static int checkCount(int pFromCount, int pToCount, int pDestinationCount) {
+		if (pFromCount != pToCount) {
+			throw new IllegalArgumentException("The sources must have the same count of values.");
+		}
+		if (pDestinationCount < pFromCount) {
+			throw new IllegalArgumentException("The destination is too small.");
+		}
+		return pFromCount;
+	}
+
+	/**
+	 * Sets an easing per element. It is applied to the progress after the easing
+	 * of the animation. Elements without easing share the faster linear path.
+	 * @param pEasings One easing per element or null to disable.
+	 * @return This animation.
+	 */
+	public FloatBufferTween setElementEasings(Easing[] pEasings) {
+		if (pEasings != null && pEasings.length != count) {
+			throw new IllegalArgumentException("One easing per element is needed.");
+		}
+		elementEasings = pEasings;
+		return this;
+	}
+
+	/**
+	 * Gets the count of interpolated values.
+	 * @return The count.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Called after all values of a progress were written.
+	 */
+	protected void onValuesWritten() {}
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		if (elementEasings != null) {
+			writeEased(pProgress);
+		} else if (destinationArray != null) {
+			writeArrays(pProgress);
+		} else {
+			writeBuffers(pProgress);
+		}
+		onValuesWritten();
+	}
+
+	private void writeArrays(float pProgress) {
+		float[] from = fromArray;
+		float[] to = toArray;
+		float[] destination = destinationArray;
+		for (int i = 0; i < count; i++) {
+			float start = from[i];
+			destination[i] = start + (to[i] - start) * pProgress;
+		}
+	}
+
+	private void writeBuffers(float pProgress) {
+		FloatBuffer from = fromBuffer;
+		FloatBuffer to = toBuffer;
+		FloatBuffer destination = destinationBuffer;
+		for (int i = 0; i < count; i++) {
+			float start = from.get(fromOffset + i);
+			destination.put(destinationOffset + i, start + (to.get(toOffset + i) - start) * pProgress);
+		}
+	}
+
+	private void writeEased(float pProgress) {
+		Easing[] easings = elementEasings;
+		for (int i = 0; i < count; i++) {
+			float progress = easings[i] != null ? easings[i].apply(pProgress) : pProgress;
+			float start;
+			float end;
+			if (fromArray != null) {
+				start = fromArray[i];
+				end = toArray[i];
+			} else {
+				start = fromBuffer.get(fromOffset + i);
+				end = toBuffer.get(toOffset + i);
+			}
+			float value = start + (end - start) * progress;
+			if (destinationArray != null) {
+				destinationArray[i] = value;
+			} else {
+				destinationBuffer.put(destinationOffset + i, value);
+			}
+		}
+	}
+}
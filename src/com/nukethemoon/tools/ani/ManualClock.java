@@ -0,0 +1,58 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * A virtual clock that only moves forward if it is advanced manually.
+ * Use it to simulate animations deterministically without waiting for
+ * the real time to pass (e.g. in tests or for offline rendering).
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class ManualClock implements AnimationClock {
+
+	/**
+	 * The current time in milliseconds.
+	 */
+	private long timeMillis;
+
+	/**
+	 * Creates a new clock starting at 0 milliseconds.
+	 */
+	public ManualClock() {
+		this(0);
+	}
+
+	/**
+	 * Creates a new clock.
+	 * @param pTimeMillis The start time in milliseconds.
+	 */
+	public ManualClock(long pTimeMillis) {
+		timeMillis = pTimeMillis;
+	}
+
+	@Override
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	/**
+	 * Advances the time of this clock.
+	 * @param pMillis The milliseconds to advance. Negative values are ignored.
+	 * @return This instance.
+	 */
+	public ManualClock advance(long pMillis) {
+		if (pMillis > 0) {
+			timeMillis += pMillis;
+		}
+		return this;
+	}
+
+	/**
+	 * Sets the time of this clock.
+	 * @param pTimeMillis The time in milliseconds.
+	 * @return This instance.
+	 */
+	public ManualClock setTime(long pTimeMillis) {
+		timeMillis = pTimeMillis;
+		return this;
+	}
+}
@@ -0,0 +1,222 @@
+package com.nukethemoon.tools.ani;
+
+import java.util.Arrays;
+
+/**
+ * An animation with tracks that run within intervals of its progress.
+ * The tracks are indexed by their start and their end, so every update only handles
+ * the tracks that are active, just entered or just left instead of all tracks
+ * (compare {@link BaseAnimation#computeIntervalProgress(float, float, float)}).
+ * Every track gets exactly 0.0 when the progress passes its start and 1.0 when it passes
+ * its end, also if an update jumps over the whole track. This also holds if the progress
+ * moves backwards (reverse playback, seeking or overshooting easings): a track is then
+ * entered with 1.0 and left with 0.0. Every loop starts the tracks from the beginning.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class MultiTrackAnimation extends BaseAnimation {
+
+	/**
+	 * The tracks sorted by start.
+	 */
+	private float[] starts = new float[8];
+	private float[] ends = new float[8];
+	private int[] trackIds = new int[8];
+	private TrackListener[] listeners = new TrackListener[8];
+	private int trackCount = 0;
+
+	/**
+	 * The indexes of the tracks sorted by end.
+	 */
+	private int[] endOrder = new int[8];
+
+	/**
+	 * The count of tracks from the start of the start order that the progress entered.
+	 */
+	private int startCursor = 0;
+
+	/**
+	 * The count of tracks from the start of the end order that the progress left.
+	 */
+	private int endCursor = 0;
+
+	/**
+	 * The indexes of the tracks that started and did not end yet.
+	 */
+	private int[] activeTracks = new int[8];
+	private int activeCount = 0;
+
+	/**
+	 * The last handled progress.
+	 */
+	private float trackProgress = 0.0f;
+
+	/**
+	 * True if the tracks need to start from the beginning.
+	 */
+	private boolean tracksReset = true;
+
+	/**
+	 * Creates a new instance.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public MultiTrackAnimation(int pDurationMillis) {
+		super(pDurationMillis);
+	}
+
+	/**
+	 * Adds a track.
+	 * @param pStart The progress of the animation the track starts at (0.0 - 1.0).
+	 * @param pEnd The progress of the animation the track ends at (pStart - 1.0).
+	 * @param pListener The listener of the track progress.
+	 * @return The id of the track.
+	 */
+	public int addTrack(float pStart, float pEnd, TrackListener pListener) {
+		if (pStart < 0.0f || pEnd > 1.0f || pEnd < pStart) {
+			throw new IllegalArgumentException("A track needs 0.0 <= start <= end <= 1.0.");
+		}
+		if (trackCount == starts.length) {
+			int capacity = trackCount * 2;
+			starts = Arrays.copyOf(starts, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			trackIds = Arrays.copyOf(trackIds, capacity);
+			listeners = Arrays.copyOf(listeners, capacity);
+			endOrder = Arrays.copyOf(endOrder, capacity);
+			activeTracks = Arrays.copyOf(activeTracks, capacity);
+		}
+		// behind tracks with the same start to keep the order of adding
+		int index = trackCount;
+		while (index > 0 && starts[index - 1] > pStart) {
+			starts[index] = starts[index - 1];
+			ends[index] = ends[index - 1];
+			trackIds[index] = trackIds[index - 1];
+			listeners[index] = listeners[index - 1];
+			index--;
+		}
+		int trackId = trackCount;
+		starts[index] = pStart;
+		ends[index] = pEnd;
+		trackIds[index] = trackId;
+		listeners[index] = pListener;
+
+		// the tracks behind the new one moved by one
+		for (int i = 0; i < trackCount; i++) {
+			if (endOrder[i] >= index) {
+				endOrder[i]++;
+			}
+		}
+		// behind tracks with the same end
+		int endIndex = trackCount;
+		while (endIndex > 0 && ends[endOrder[endIndex - 1]] > pEnd) {
+			endOrder[endIndex] = endOrder[endIndex - 1];
+			endIndex--;
+		}
+		endOrder[endIndex] = index;
+		trackCount++;
+		// the sorted indexes changed
+		tracksReset = true;
+		return trackId;
+	}
+
+	/**
+	 * Gets the count of tracks.
+	 * @return The count.
+	 */
+	public int getTrackCount() {
+		return trackCount;
+	}
+
+	/**
+	 * Gets the count of tracks that started and did not end at the last progress.
+	 * @return The count.
+	 */
+	public int getActiveTrackCount() {
+		return activeCount;
+	}
+
+	@Override
+	void resetLoop() {
+		tracksReset = true;
+	}
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		if (tracksReset) {
+			tracksReset = false;
+			activeCount = 0;
+			// a reversed loop enters the tracks from the end
+			startCursor = isReversed() ? trackCount : 0;
+			endCursor = startCursor;
+			moveTracks(pProgress, isReversed());
+		} else if (pProgress != trackProgress) {
+			moveTracks(pProgress, pProgress < trackProgress);
+		} else {
+			for (int i = 0; i < activeCount; i++) {
+				int track = activeTracks[i];
+				listeners[track].onTrackProgress(trackIds[track], computeTrackProgress(track, pProgress));
+			}
+		}
+		trackProgress = pProgress;
+	}
+
+	/**
+	 * Calls the tracks the progress entered, left or moved in. Moving forward a track is active
+	 * while start &lt;= progress &lt; end, moving backwards while start &lt; progress &lt;= end.
+	 */
+	private void moveTracks(float pProgress, boolean pBackwards) {
+		// update the active tracks and remove the left ones
+		int kept = 0;
+		for (int i = 0; i < activeCount; i++) {
+			int track = activeTracks[i];
+			if (pBackwards ? starts[track] >= pProgress : ends[track] <= pProgress) {
+				listeners[track].onTrackProgress(trackIds[track], pBackwards ? 0.0f : 1.0f);
+			} else {
+				listeners[track].onTrackProgress(trackIds[track], computeTrackProgress(track, pProgress));
+				activeTracks[kept++] = track;
+			}
+		}
+		activeCount = kept;
+
+		if (pBackwards) {
+			// enter the tracks that were reached from their end
+			while (endCursor > 0 && ends[endOrder[endCursor - 1]] >= pProgress) {
+				int track = endOrder[--endCursor];
+				listeners[track].onTrackProgress(trackIds[track], 1.0f);
+				if (starts[track] >= pProgress) {
+					listeners[track].onTrackProgress(trackIds[track], 0.0f);
+				} else {
+					if (pProgress < ends[track]) {
+						listeners[track].onTrackProgress(trackIds[track], computeTrackProgress(track, pProgress));
+					}
+					activeTracks[activeCount++] = track;
+				}
+			}
+			// the left tracks were called above
+			while (startCursor > 0 && starts[startCursor - 1] >= pProgress) {
+				startCursor--;
+			}
+		} else {
+			// enter the tracks that were reached from their start
+			while (startCursor < trackCount && starts[startCursor] <= pProgress) {
+				int track = startCursor++;
+				listeners[track].onTrackProgress(trackIds[track], 0.0f);
+				if (ends[track] <= pProgress) {
+					listeners[track].onTrackProgress(trackIds[track], 1.0f);
+				} else {
+					if (pProgress > starts[track]) {
+						listeners[track].onTrackProgress(trackIds[track], computeTrackProgress(track, pProgress));
+					}
+					activeTracks[activeCount++] = track;
+				}
+			}
+			// the left tracks were called above
+			while (endCursor < trackCount && ends[endOrder[endCursor]] <= pProgress) {
+				endCursor++;
+			}
+		}
+	}
+
+	private float computeTrackProgress(int pTrack, float pProgress) {
+		return (pProgress - starts[pTrack]) / (ends[pTrack] - starts[pTrack]);
+	}
+}
@@ -0,0 +1,45 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation that moves along a path with constant speed.
+ * Implement onPosition to apply the position.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class PathAnimation extends BaseAnimation {
+
+	private final AnimationPath path;
+	private final float[] point = new float[2];
+	private int cursor = -1;
+
+	/**
+	 * Creates a new instance.
+	 * @param pPath The path to follow. Can be shared between animations.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public PathAnimation(AnimationPath pPath, int pDurationMillis) {
+		super(pDurationMillis);
+		path = pPath;
+	}
+
+	/**
+	 * Implement this method to apply the position on the path.
+	 * @param pX The x coordinate.
+	 * @param pY The y coordinate.
+	 */
+	protected abstract void onPosition(float pX, float pY);
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		cursor = path.getPoint(pProgress, point, cursor);
+		onPosition(point[0], point[1]);
+	}
+
+	/**
+	 * Gets the path of this animation.
+	 * @return The path.
+	 */
+	public AnimationPath getPath() {
+		return path;
+	}
+}
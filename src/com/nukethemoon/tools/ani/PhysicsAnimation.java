@@ -0,0 +1,161 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation that is driven by a physical simulation instead of a duration.
+ * The simulation is integrated in fixed time steps, so it behaves the same
+ * for every update interval. The animation finishes on its own if the
+ * simulation has settled.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class PhysicsAnimation extends BaseAnimation {
+
+	/**
+	 * The default time step of the simulation in seconds.
+	 */
+	public static final float DEFAULT_STEP_SECONDS = 1.0f / 240.0f;
+
+	/**
+	 * The maximum count of steps per update. Remaining time is dropped
+	 * to avoid long updates after a stall.
+	 */
+	private static final int MAX_STEPS_PER_UPDATE = 2400;
+
+	/**
+	 * The current value.
+	 */
+	protected float value;
+
+	/**
+	 * The current velocity in units per second.
+	 */
+	protected float velocity;
+
+	private float stepSeconds = DEFAULT_STEP_SECONDS;
+	private double accumulatedSeconds;
+	private long timeLastUpdate;
+
+	/**
+	 * Creates a new instance.
+	 * @param pValue The start value.
+	 * @param pVelocity The start velocity in units per second.
+	 */
+	protected PhysicsAnimation(float pValue, float pVelocity) {
+		super(0);
+		value = pValue;
+		velocity = pVelocity;
+	}
+
+	/**
+	 * Advances the simulation by one step.
+	 * @param pStepSeconds The time step in seconds.
+	 * @return True if the simulation has settled.
+	 */
+	protected abstract boolean step(float pStepSeconds);
+
+	/**
+	 * Implement this method to apply the current value.
+	 * @param pValue The current value.
+	 */
+	protected abstract void onValue(float pValue);
+
+	/**
+	 * Physics animations have no progress. Use onValue instead.
+	 */
+	@Override
+	protected final void onProgress(float pProgress) {}
+
+	@Override
+	public BaseAnimation start() {
+		if (!hasStarted()) {
+			super.start();
+			timeLastUpdate = getClock().getTimeMillis();
+			accumulatedSeconds = 0;
+			onValue(value);
+		}
+		return this;
+	}
+
+	@Override
+	public BaseAnimation setClock(AnimationClock pClock) {
+		AnimationClock previousClock = getClock();
+		super.setClock(pClock);
+		if (pClock != null && pClock != previousClock) {
+			timeLastUpdate += pClock.getTimeMillis() - previousClock.getTimeMillis();
+		}
+		return this;
+	}
+
+	/**
+	 * Advances the simulation to the current time and applies the value.
+	 * @return The current value.
+	 */
+	@Override
+	public float update() {
+		if (!hasStarted()) {
+			return value;
+		}
+		long now = getClock().getTimeMillis();
+		if (isPaused()) {
+			timeLastUpdate = now;
+			return value;
+		}
+		accumulatedSeconds += (now - timeLastUpdate) / 1000.0 / Ani.getGlobalTimeFactor();
+		timeLastUpdate = now;
+
+		int steps = 0;
+		while (accumulatedSeconds >= stepSeconds) {
+			accumulatedSeconds -= stepSeconds;
+			if (step(stepSeconds)) {
+				onValue(value);
+				finish();
+				return value;
+			}
+			if (++steps >= MAX_STEPS_PER_UPDATE) {
+				accumulatedSeconds = 0;
+				break;
+			}
+		}
+		onValue(value);
+		trace(AnimationTracer.EVENT_PROGRESS, value);
+		return value;
+	}
+
+	/**
+	 * Sets the time step of the simulation.
+	 * @param pStepSeconds The time step in seconds.
+	 * @return This animation.
+	 */
+	public PhysicsAnimation setStepSeconds(float pStepSeconds) {
+		if (pStepSeconds > 0) {
+			stepSeconds = pStepSeconds;
+		}
+		return this;
+	}
+
+	/**
+	 * Gets the current value.
+	 * @return The value.
+	 */
+	public float getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the current velocity.
+	 * @return The velocity in units per second.
+	 */
+	public float getVelocity() {
+		return velocity;
+	}
+
+	/**
+	 * Sets the current velocity (e.g. of a fling gesture).
+	 * @param pVelocity The velocity in units per second.
+	 * @return This animation.
+	 */
+	public PhysicsAnimation setVelocity(float pVelocity) {
+		velocity = pVelocity;
+		return this;
+	}
+}
@@ -0,0 +1,25 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Access to features that differ between Java versions. The jar contains
+ * replacements of this class for newer versions (see src-java21).
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class Platform {
+
+	private Platform() {}
+
+	/**
+	 * Starts a daemon thread for work that mostly waits (e.g. scripts that wait for animations, self-updating controllers).
+	 * @param pTask The task to run.
+	 * @param pName The name of the thread.
+	 * @return The started thread.
+	 */
+	static Thread startThread(Runnable pTask, String pName) {
+		Thread thread = new Thread(pTask, pName);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+}
@@ -0,0 +1,214 @@
+package com.nukethemoon.tools.ani;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * An animation that sets a property of its target without a custom subclass.
+ * The property is set with the setter (e.g. setAlpha(float)) or the public field
+ * of the same name. The setter is resolved once per class and property and called without
+ * boxing: on Java 9 and newer by a generated setter class, on Java 7 and 8 by a method handle.
+ * Android versions without java.lang.invoke use reflection.
+ * The target and the conflict key are assigned automatically. Use setWeakTarget
+ * with the same target to not keep it from being garbage collected.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class PropertyAnimation extends BaseAnimation {
+
+	private final String property;
+
+	private PropertyAnimation(Object pTarget, String pProperty, int pDurationMillis) {
+		super(pDurationMillis);
+		property = pProperty;
+		setTarget(pTarget);
+		setConflictKey(pTarget, pProperty);
+	}
+
+	/**
+	 * Creates an animation of a float property.
+	 * @param pTarget The object to animate.
+	 * @param pProperty The name of the property (e.g. "alpha" for setAlpha(float)).
+	 * @param pFrom The start value.
+	 * @param pTo The end value.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 * @return The animation.
+	 * @throws IllegalArgumentException If the target has no accessible setter or field.
+	 */
+	public static PropertyAnimation of(Object pTarget, String pProperty, float pFrom, float pTo, int pDurationMillis) {
+		PropertySetter.OfFloat setter = PropertySetters.ofFloat(getType(pTarget), pProperty);
+		return new FloatProperty(pTarget, pProperty, setter, pFrom, pTo, pDurationMillis);
+	}
+
+	/**
+	 * Creates an animation of an int property. The values are rounded.
+	 * @param pTarget The object to animate.
+	 * @param pProperty The name of the property (e.g. "width" for setWidth(int)).
+	 * @param pFrom The start value.
+	 * @param pTo The end value.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 * @return The animation.
+	 * @throws IllegalArgumentException If the target has no accessible setter or field.
+	 */
+	public static PropertyAnimation of(Object pTarget, String pProperty, int pFrom, int pTo, int pDurationMillis) {
+		PropertySetter.OfInt setter = PropertySetters.ofInt(getType(pTarget), pProperty);
+		return new IntProperty(pTarget, pProperty, setter, pFrom, pTo, pDurationMillis);
+	}
+
+	/**
+	 * Creates an animation of a double property.
+	 * @param pTarget The object to animate.
+	 * @param pProperty The name of the property (e.g. "x" for setX(double)).
+	 * @param pFrom The start value.
+	 * @param pTo The end value.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 * @return The animation.
+	 * @throws IllegalArgumentException If the target has no accessible setter or field.
+	 */
+	public static PropertyAnimation of(Object pTarget, String pProperty, double pFrom, double pTo, int pDurationMillis) {
+		PropertySetter.OfDouble setter = PropertySetters.ofDouble(getType(pTarget), pProperty);
+		return new DoubleProperty(pTarget, pProperty, setter, pFrom, pTo, pDurationMillis);
+	}
+
+	/**
+	 * Gets the name of the animated property.
+	 * @return The property.
+	 */
+	public String getProperty() {
+		return property;
+	}
+
+	private static Class<?> getType(Object pTarget) {
+		if (pTarget == null) {
+			throw new IllegalArgumentException("The target must not be null.");
+		}
+		return pTarget.getClass();
+	}
+
+	/**
+	 * Finds the public setter method or the public field of a property.
+	 * @return The accessible method or field.
+	 * @throws IllegalArgumentException If the type has no setter or writable field of the value type.
+	 */
+	static AccessibleObject findAccessor(Class<?> pType, String pProperty, Class<?> pValueType) {
+		String setterName = "set" + Character.toUpperCase(pProperty.charAt(0)) + pProperty.substring(1);
+		try {
+			Method method = pType.getMethod(setterName, pValueType);
+			makeAccessible(method);
+			return method;
+		} catch (NoSuchMethodException e) {
+			// try the field
+		}
+		try {
+			Field field = pType.getField(pProperty);
+			if (field.getType() != pValueType || Modifier.isFinal(field.getModifiers())
+					|| Modifier.isStatic(field.getModifiers())) {
+				throw new IllegalArgumentException("The field " + pProperty + " of " + pType.getName()
+						+ " is not a writable " + pValueType.getName() + " field.");
+			}
+			makeAccessible(field);
+			return field;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalArgumentException("There is no public " + setterName + "(" + pValueType.getName()
+					+ ") or field " + pProperty + " in " + pType.getName() + ".");
+		}
+	}
+
+	/**
+	 * Allows public members of classes that are not public.
+	 */
+	private static void makeAccessible(AccessibleObject pMember) {
+		try {
+			pMember.setAccessible(true);
+		} catch (RuntimeException e) {
+			// use the default access
+		}
+	}
+
+	static RuntimeException rethrow(Throwable pThrowable) {
+		if (pThrowable instanceof RuntimeException) {
+			return (RuntimeException) pThrowable;
+		}
+		if (pThrowable instanceof Error) {
+			throw (Error) pThrowable;
+		}
+		return new IllegalStateException(pThrowable);
+	}
+
+	private static final class FloatProperty extends PropertyAnimation {
+
+		private final PropertySetter.OfFloat setter;
+		private final float from;
+		private final float to;
+
+		private FloatProperty(Object pTarget, String pProperty, PropertySetter.OfFloat pSetter,
+							  float pFrom, float pTo, int pDurationMillis) {
+			super(pTarget, pProperty, pDurationMillis);
+			setter = pSetter;
+			from = pFrom;
+			to = pTo;
+		}
+
+		@Override
+		protected void onProgress(float pProgress) {
+			Object target = getTarget();
+			if (target == null) {
+				// the weak target was garbage collected
+				return;
+			}
+			setter.set(target, from + (to - from) * pProgress);
+		}
+	}
+
+	private static final class IntProperty extends PropertyAnimation {
+
+		private final PropertySetter.OfInt setter;
+		private final int from;
+		private final int to;
+
+		private IntProperty(Object pTarget, String pProperty, PropertySetter.OfInt pSetter,
+							int pFrom, int pTo, int pDurationMillis) {
+			super(pTarget, pProperty, pDurationMillis);
+			setter = pSetter;
+			from = pFrom;
+			to = pTo;
+		}
+
+		@Override
+		protected void onProgress(float pProgress) {
+			Object target = getTarget();
+			if (target == null) {
+				// the weak target was garbage collected
+				return;
+			}
+			setter.set(target, Math.round(from + (to - from) * pProgress));
+		}
+	}
+
+	private static final class DoubleProperty extends PropertyAnimation {
+
+		private final PropertySetter.OfDouble setter;
+		private final double from;
+		private final double to;
+
+		private DoubleProperty(Object pTarget, String pProperty, PropertySetter.OfDouble pSetter,
+							   double pFrom, double pTo, int pDurationMillis) {
+			super(pTarget, pProperty, pDurationMillis);
+			setter = pSetter;
+			from = pFrom;
+			to = pTo;
+		}
+
+		@Override
+		protected void onProgress(float pProgress) {
+			Object target = getTarget();
+			if (target == null) {
+				// the weak target was garbage collected
+				return;
+			}
+			setter.set(target, from + (to - from) * pProgress);
+		}
+	}
+}
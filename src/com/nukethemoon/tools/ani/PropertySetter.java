@@ -0,0 +1,30 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Sets a property of a target object. The setters are resolved by {@link PropertySetters}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+interface PropertySetter {
+
+	/**
+	 * Sets a float property.
+	 */
+	interface OfFloat {
+		void set(Object pTarget, float pValue);
+	}
+
+	/**
+	 * Sets an int property.
+	 */
+	interface OfInt {
+		void set(Object pTarget, int pValue);
+	}
+
+	/**
+	 * Sets a double property.
+	 */
+	interface OfDouble {
+		void set(Object pTarget, double pValue);
+	}
+}
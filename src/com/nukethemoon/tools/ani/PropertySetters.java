@@ -0,0 +1,195 @@
+package com.nukethemoon.tools.ani;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves the setters of properties. The setters are cached per class and property.
+ * This version calls them with a method handle. Android versions without java.lang.invoke
+ * use reflection. Java 9+ replaces this class with a version that generates
+ * setter classes (see src-java9).
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class PropertySetters {
+
+	/**
+	 * The resolved setters per class by property and type.
+	 */
+	private static final Map<Class<?>, Map<String, Object>> setters = new HashMap<Class<?>, Map<String, Object>>();
+
+	private static final boolean HANDLES_AVAILABLE = isHandlesAvailable();
+
+	private PropertySetters() {
+	}
+
+	static PropertySetter.OfFloat ofFloat(Class<?> pType, String pProperty) {
+		return (PropertySetter.OfFloat) get(pType, pProperty, float.class);
+	}
+
+	static PropertySetter.OfInt ofInt(Class<?> pType, String pProperty) {
+		return (PropertySetter.OfInt) get(pType, pProperty, int.class);
+	}
+
+	static PropertySetter.OfDouble ofDouble(Class<?> pType, String pProperty) {
+		return (PropertySetter.OfDouble) get(pType, pProperty, double.class);
+	}
+
+	private static Object get(Class<?> pType, String pProperty, Class<?> pValueType) {
+		String key = pProperty + ':' + pValueType.getName();
+		synchronized (setters) {
+			Map<String, Object> classSetters = setters.get(pType);
+			if (classSetters == null) {
+				classSetters = new HashMap<String, Object>();
+				setters.put(pType, classSetters);
+			}
+			Object setter = classSetters.get(key);
+			if (setter == null) {
+				setter = resolve(pType, pProperty, pValueType);
+				classSetters.put(key, setter);
+			}
+			return setter;
+		}
+	}
+
+	private static Object resolve(Class<?> pType, String pProperty, Class<?> pValueType) {
+		AccessibleObject accessor = PropertyAnimation.findAccessor(pType, pProperty, pValueType);
+		if (HANDLES_AVAILABLE) {
+			try {
+				return HandleSetter.create(accessor, pValueType);
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException("The property " + pProperty + " of " + pType.getName()
+						+ " is not accessible.", e);
+			} catch (UnsupportedOperationException e) {
+				// use reflection
+			}
+		}
+		return new ReflectiveSetter(accessor);
+	}
+
+	private static boolean isHandlesAvailable() {
+		try {
+			Class.forName("java.lang.invoke.MethodHandles");
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Sets a property with a method handle of the type (Object, value type)void.
+	 */
+	private static final class HandleSetter
+			implements PropertySetter.OfFloat, PropertySetter.OfInt, PropertySetter.OfDouble {
+
+		private final MethodHandle handle;
+
+		private HandleSetter(MethodHandle pHandle) {
+			handle = pHandle;
+		}
+
+		static HandleSetter create(AccessibleObject pAccessor, Class<?> pValueType) throws IllegalAccessException {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle handle = pAccessor instanceof Method
+					? lookup.unreflect((Method) pAccessor)
+					: lookup.unreflectSetter((Field) pAccessor);
+			// drops the return value of fluent setters
+			return new HandleSetter(handle.asType(MethodType.methodType(void.class, Object.class, pValueType)));
+		}
+
+		@Override
+		public void set(Object pTarget, float pValue) {
+			try {
+				handle.invokeExact(pTarget, pValue);
+			} catch (Throwable t) {
+				throw PropertyAnimation.rethrow(t);
+			}
+		}
+
+		@Override
+		public void set(Object pTarget, int pValue) {
+			try {
+				handle.invokeExact(pTarget, pValue);
+			} catch (Throwable t) {
+				throw PropertyAnimation.rethrow(t);
+			}
+		}
+
+		@Override
+		public void set(Object pTarget, double pValue) {
+			try {
+				handle.invokeExact(pTarget, pValue);
+			} catch (Throwable t) {
+				throw PropertyAnimation.rethrow(t);
+			}
+		}
+	}
+
+	/**
+	 * Sets a property with its setter method or its field. Boxes the value,
+	 * so it is only used without java.lang.invoke.
+	 */
+	private static final class ReflectiveSetter
+			implements PropertySetter.OfFloat, PropertySetter.OfInt, PropertySetter.OfDouble {
+
+		private final Method method;
+		private final Field field;
+
+		private ReflectiveSetter(AccessibleObject pAccessor) {
+			method = pAccessor instanceof Method ? (Method) pAccessor : null;
+			field = pAccessor instanceof Field ? (Field) pAccessor : null;
+		}
+
+		@Override
+		public void set(Object pTarget, float pValue) {
+			try {
+				if (field != null) {
+					field.setFloat(pTarget, pValue);
+				} else {
+					method.invoke(pTarget, pValue);
+				}
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				throw PropertyAnimation.rethrow(e.getCause());
+			}
+		}
+
+		@Override
+		public void set(Object pTarget, int pValue) {
+			try {
+				if (field != null) {
+					field.setInt(pTarget, pValue);
+				} else {
+					method.invoke(pTarget, pValue);
+				}
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				throw PropertyAnimation.rethrow(e.getCause());
+			}
+		}
+
+		@Override
+		public void set(Object pTarget, double pValue) {
+			try {
+				if (field != null) {
+					field.setDouble(pTarget, pValue);
+				} else {
+					method.invoke(pTarget, pValue);
+				}
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				throw PropertyAnimation.rethrow(e.getCause());
+			}
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.nukethemoon.tools.ani;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A long value written by one thread and read by others (e.g. the frame time read
+ * by render threads). Writes are ordered release stores instead of full volatile
+ * stores. Java 9+ replaces this class with a VarHandle version (see src-java9).
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class PublishedLong {
+
+	private static final AtomicLongFieldUpdater<PublishedLong> updater =
+			AtomicLongFieldUpdater.newUpdater(PublishedLong.class, "value");
+
+	private volatile long value;
+
+	long get() {
+		return value;
+	}
+
+	void set(long pValue) {
+		updater.lazySet(this, pValue);
+	}
+}
@@ -0,0 +1,98 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation that moves a value to a target like a damped spring.
+ * The target can be changed while the animation is running without losing
+ * the current velocity. Implement onValue to apply the value.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class SpringAnimation extends PhysicsAnimation {
+
+	public static final float DEFAULT_STIFFNESS = 170.0f;
+	public static final float DEFAULT_DAMPING = 26.0f;
+	public static final float DEFAULT_MASS = 1.0f;
+
+	private float targetValue;
+	private final float stiffness;
+	private final float damping;
+	private final float mass;
+
+	private float displacementThreshold = 0.001f;
+	private float velocityThreshold = 0.01f;
+
+	/**
+	 * Creates a new spring with the default stiffness, damping and mass.
+	 * @param pFrom The start value.
+	 * @param pTo The target value.
+	 */
+	public SpringAnimation(float pFrom, float pTo) {
+		this(pFrom, pTo, DEFAULT_STIFFNESS, DEFAULT_DAMPING, DEFAULT_MASS);
+	}
+
+	/**
+	 * Creates a new spring.
+	 * @param pFrom The start value.
+	 * @param pTo The target value.
+	 * @param pStiffness The force per unit of displacement.
+	 * @param pDamping The force per unit of velocity.
+	 * @param pMass The mass. Must be higher than 0.
+	 */
+	public SpringAnimation(float pFrom, float pTo, float pStiffness, float pDamping, float pMass) {
+		super(pFrom, 0.0f);
+		if (pMass <= 0) {
+			throw new IllegalArgumentException("The mass must be higher than 0.");
+		}
+		targetValue = pTo;
+		stiffness = pStiffness;
+		damping = pDamping;
+		mass = pMass;
+	}
+
+	@Override
+	protected boolean step(float pStepSeconds) {
+		// semi-implicit euler
+		float displacement = value - targetValue;
+		float acceleration = (-stiffness * displacement - damping * velocity) / mass;
+		velocity += acceleration * pStepSeconds;
+		value += velocity * pStepSeconds;
+
+		if (Math.abs(value - targetValue) < displacementThreshold
+				&& Math.abs(velocity) < velocityThreshold) {
+			value = targetValue;
+			velocity = 0.0f;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets a new target. The current value and velocity are kept.
+	 * @param pTargetValue The target value.
+	 * @return This animation.
+	 */
+	public SpringAnimation setTargetValue(float pTargetValue) {
+		targetValue = pTargetValue;
+		return this;
+	}
+
+	/**
+	 * Gets the target value.
+	 * @return The target value.
+	 */
+	public float getTargetValue() {
+		return targetValue;
+	}
+
+	/**
+	 * Sets the limits to detect a settled spring.
+	 * @param pDisplacement The maximum distance to the target.
+	 * @param pVelocity The maximum velocity in units per second.
+	 * @return This animation.
+	 */
+	public SpringAnimation setSettleThresholds(float pDisplacement, float pVelocity) {
+		displacementThreshold = pDisplacement;
+		velocityThreshold = pVelocity;
+		return this;
+	}
+}
@@ -0,0 +1,119 @@
+package com.nukethemoon.tools.ani;
+
+import java.util.Arrays;
+
+/**
+ * One animation that drives many items with staggered starts (e.g. the entrance of
+ * list items). Every item runs for the item duration and starts after its offset.
+ * The progress of all items is computed from the one progress of this animation,
+ * so a cascade of many items uses a single slot of the controller.
+ * onItemProgress is only called for items whose progress changed and every item
+ * gets exactly 0.0 before and 1.0 after its run.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class StaggerAnimation extends BaseAnimation {
+
+	private final int itemCount;
+	private final int itemDurationMillis;
+	private final float[] offsetsMillis;
+	private final float[] itemProgress;
+	private Easing itemEasing;
+
+	/**
+	 * Creates a new stagger animation. The duration is the item duration plus the
+	 * largest offset.
+	 * @param pItemCount The count of items.
+	 * @param pItemDurationMillis The duration of one item in milliseconds.
+	 * @param pStaggerMillis The time of one offset step in milliseconds.
+	 * @param pOffset The offset of the items.
+	 */
+	public StaggerAnimation(int pItemCount, int pItemDurationMillis, int pStaggerMillis, StaggerOffset pOffset) {
+		super(pItemDurationMillis);
+		if (pItemCount < 0) {
+			throw new IllegalArgumentException("The item count must not be negative.");
+		}
+		itemCount = pItemCount;
+		itemDurationMillis = pItemDurationMillis;
+		offsetsMillis = new float[pItemCount];
+		itemProgress = new float[pItemCount];
+		float maxOffset = 0;
+		for (int i = 0; i < pItemCount; i++) {
+			float offset = pOffset.getOffset(i, pItemCount) * pStaggerMillis;
+			if (offset < 0) {
+				throw new IllegalArgumentException("The offset of item " + i + " is negative.");
+			}
+			offsetsMillis[i] = offset;
+			maxOffset = Math.max(maxOffset, offset);
+		}
+		setDurationMillis(pItemDurationMillis + (int) Math.ceil(maxOffset));
+	}
+
+	/**
+	 * Called if the progress of an item changed.
+	 * @param pIndex The index of the item.
+	 * @param pProgress The progress of the item between 0.0 and 1.0.
+	 */
+	protected abstract void onItemProgress(int pIndex, float pProgress);
+
+	/**
+	 * Sets an easing that is applied to the progress of every item.
+	 * The easing of the animation is applied to the time line of all items.
+	 * @param pEasing The easing or null for a linear progress.
+	 * @return This animation.
+	 */
+	public StaggerAnimation setItemEasing(Easing pEasing) {
+		itemEasing = pEasing;
+		return this;
+	}
+
+	/**
+	 * Gets the count of items.
+	 * @return The count.
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * Gets the start offset of an item.
+	 * @param pIndex The index of the item.
+	 * @return The offset in milliseconds.
+	 */
+	public float getItemOffsetMillis(int pIndex) {
+		return offsetsMillis[pIndex];
+	}
+
+	@Override
+	public BaseAnimation start() {
+		if (!hasStarted()) {
+			// every item gets its start progress
+			Arrays.fill(itemProgress, -1.0f);
+		}
+		return super.start();
+	}
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		float time = pProgress * getDurationMillis();
+		float itemDuration = itemDurationMillis;
+		float[] offsets = offsetsMillis;
+		float[] lastProgress = itemProgress;
+		Easing easing = itemEasing;
+		for (int i = 0; i < itemCount; i++) {
+			float local = time - offsets[i];
+			float progress;
+			if (local <= 0) {
+				progress = itemDuration > 0 || local < 0 ? 0.0f : 1.0f;
+			} else if (local >= itemDuration) {
+				progress = 1.0f;
+			} else {
+				progress = local / itemDuration;
+			}
+			if (progress != lastProgress[i]) {
+				lastProgress[i] = progress;
+				onItemProgress(i, easing != null ? easing.apply(progress) : progress);
+			}
+		}
+	}
+}
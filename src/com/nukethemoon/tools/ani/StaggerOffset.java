@@ -0,0 +1,19 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Computes the start offset of an item of a {@link StaggerAnimation}.
+ * See {@link StaggerOffsets} for common implementations.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface StaggerOffset {
+
+	/**
+	 * Computes the offset of an item in steps. The offset in milliseconds is the
+	 * offset multiplied with the stagger time of the animation.
+	 * @param pIndex The index of the item.
+	 * @param pCount The count of items.
+	 * @return The offset in steps. Must not be negative.
+	 */
+	float getOffset(int pIndex, int pCount);
+}
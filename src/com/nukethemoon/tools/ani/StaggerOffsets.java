@@ -0,0 +1,62 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Common stagger offsets.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public final class StaggerOffsets {
+
+	private StaggerOffsets() {}
+
+	/**
+	 * One step per index. The first item starts first.
+	 */
+	public static final StaggerOffset LINEAR = new StaggerOffset() {
+		@Override
+		public float getOffset(int pIndex, int pCount) {
+			return pIndex;
+		}
+	};
+
+	/**
+	 * One step per index distance to the center. The center items start first.
+	 */
+	public static final StaggerOffset FROM_CENTER = new StaggerOffset() {
+		@Override
+		public float getOffset(int pIndex, int pCount) {
+			return Math.abs(pIndex - (pCount - 1) / 2.0f);
+		}
+	};
+
+	/**
+	 * Creates an offset for items in a grid with one step per cell distance to the
+	 * origin cell. The items are ordered row by row.
+	 * @param pColumns The count of columns of the grid.
+	 * @param pOriginColumn The column of the item that starts first.
+	 * @param pOriginRow The row of the item that starts first.
+	 * @return The offset.
+	 */
+	public static StaggerOffset grid(final int pColumns, final float pOriginColumn, final float pOriginRow) {
+		if (pColumns <= 0) {
+			throw new IllegalArgumentException("The grid needs at least one column.");
+		}
+		return new StaggerOffset() {
+			@Override
+			public float getOffset(int pIndex, int pCount) {
+				float dx = pIndex % pColumns - pOriginColumn;
+				float dy = pIndex / pColumns - pOriginRow;
+				return (float) Math.sqrt(dx * dx + dy * dy);
+			}
+		};
+	}
+
+	/**
+	 * Creates an offset for items in a grid that starts at the top left cell.
+	 * @param pColumns The count of columns of the grid.
+	 * @return The offset.
+	 */
+	public static StaggerOffset grid(int pColumns) {
+		return grid(pColumns, 0, 0);
+	}
+}
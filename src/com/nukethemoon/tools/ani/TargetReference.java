@@ -0,0 +1,20 @@
+package com.nukethemoon.tools.ani;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A weak reference of an animation to its target. Enqueued to the controller
+ * if the target was garbage collected.
+ *
+ * @author lucahofmann@gmx.net
+ */
+final class TargetReference extends WeakReference<Object> {
+
+	final BaseAnimation animation;
+
+	TargetReference(Object pTarget, ReferenceQueue<Object> pQueue, BaseAnimation pAnimation) {
+		super(pTarget, pQueue);
+		animation = pAnimation;
+	}
+}
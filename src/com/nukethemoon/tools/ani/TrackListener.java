@@ -0,0 +1,16 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * Receives the progress of a track of a {@link MultiTrackAnimation}.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public interface TrackListener {
+
+	/**
+	 * Called if the progress of the track changed.
+	 * @param pTrack The id of the track (the order of adding).
+	 * @param pProgress The progress of the track between 0.0 and 1.0.
+	 */
+	void onTrackProgress(int pTrack, float pProgress);
+}
@@ -0,0 +1,184 @@
+package com.nukethemoon.tools.ani;
+
+/**
+ * An animation of a float value that can change its end value while it runs.
+ * Retargeting re-solves the curve from the current value and velocity, so the value
+ * and its velocity stay continuous. The animation object and its controller slot
+ * are reused, so input driven animations (e.g. dragging) do not allocate.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public abstract class ValueAnimation extends BaseAnimation {
+
+	/**
+	 * The step of the progress used to compute the velocity.
+	 */
+	private static final float VELOCITY_STEP = 0.001f;
+
+	private float from;
+	private float to;
+
+	/**
+	 * True if the curve was re-solved by a retarget.
+	 */
+	private boolean retargeted = false;
+	private float startTangent;
+
+	/**
+	 * The settings of the animation before the first retarget of the current run.
+	 */
+	private Easing savedEasing;
+	private int savedLoopLength;
+	private float savedPlaybackRate;
+	private int savedDurationMillis;
+
+	private float value;
+
+	/**
+	 * Creates a new value animation.
+	 * @param pFrom The start value.
+	 * @param pTo The end value.
+	 * @param pDurationMillis The duration of the animation in milliseconds.
+	 */
+	public ValueAnimation(float pFrom, float pTo, int pDurationMillis) {
+		super(pDurationMillis);
+		from = pFrom;
+		to = pTo;
+		value = pFrom;
+	}
+
+	/**
+	 * Called with the value of the current progress.
+	 * @param pValue The value.
+	 */
+	protected abstract void onValue(float pValue);
+
+	@Override
+	protected final void onProgress(float pProgress) {
+		value = retargeted ? computeRetargeted(pProgress) : from + (to - from) * pProgress;
+		onValue(value);
+	}
+
+	/**
+	 * Computes the value of a cubic hermite curve from the start value and tangent
+	 * to the end value with zero velocity.
+	 */
+	private float computeRetargeted(float pProgress) {
+		float t = pProgress;
+		float t2 = t * t;
+		float t3 = t2 * t;
+		return (2 * t3 - 3 * t2 + 1) * from + (t3 - 2 * t2 + t) * startTangent + (3 * t2 - 2 * t3) * to;
+	}
+
+	private float computeValue(float pLinearProgress) {
+		if (retargeted) {
+			return computeRetargeted(pLinearProgress);
+		}
+		Easing easing = getEasing();
+		float progress = easing != null ? easing.apply(pLinearProgress) : pLinearProgress;
+		return from + (to - from) * progress;
+	}
+
+	/**
+	 * Changes the end value and keeps the remaining duration of the current run.
+	 * @param pTo The new end value.
+	 * @return This animation.
+	 */
+	public ValueAnimation retarget(float pTo) {
+		float progress = getLastProgress();
+		float timeFraction = isReversed() ? 1.0f - progress : progress;
+		int remainingMillis = hasStarted()
+				? Math.round(getDurationMillis() * (1.0f - timeFraction)) : getDurationMillis();
+		return retarget(pTo, remainingMillis);
+	}
+
+	/**
+	 * Changes the end value and the remaining duration. A running animation continues
+	 * from its current value and velocity and plays forward without easing and loops.
+	 * When this run ends the easing, loops, playback rate and duration are restored, so
+	 * a next start plays from the start value of the retarget to the new end value.
+	 * An animation that does not run only gets the new end value and duration.
+	 * @param pTo The new end value.
+	 * @param pRemainingMillis The time to reach the end value in milliseconds.
+	 * @return This animation.
+	 */
+	public ValueAnimation retarget(float pTo, int pRemainingMillis) {
+		if (!hasStarted()) {
+			if (isFinished()) {
+				from = value;
+			}
+			retargeted = false;
+			to = pTo;
+			setDurationMillis(pRemainingMillis);
+			return this;
+		}
+		float velocity = getVelocity();
+		if (!retargeted) {
+			savedEasing = getEasing();
+			savedLoopLength = getLoopLength();
+			savedPlaybackRate = getPlaybackRate();
+			savedDurationMillis = getDurationMillis();
+		}
+		float rate = Math.abs(getPlaybackRate());
+		if (rate == 0) {
+			rate = 1.0f;
+		}
+		setPlaybackRate(rate);
+		setEasing(null);
+		setLoopLength(0);
+
+		from = value;
+		to = pTo;
+		double realDuration = pRemainingMillis * Ani.getGlobalTimeFactor() / rate;
+		startTangent = (float) (velocity * realDuration);
+		retargeted = true;
+		rebase(pRemainingMillis);
+		return this;
+	}
+
+	@Override
+	void endRun() {
+		if (!retargeted) {
+			return;
+		}
+		retargeted = false;
+		setEasing(savedEasing);
+		setLoopLength(savedLoopLength);
+		setPlaybackRate(savedPlaybackRate);
+		setDurationMillis(savedDurationMillis);
+		savedEasing = null;
+	}
+
+	/**
+	 * Gets the velocity of the value at the last progress.
+	 * @return The change of the value per millisecond.
+	 */
+	public float getVelocity() {
+		double realDuration = getDurationMillis() * Ani.getGlobalTimeFactor() / Math.abs(getPlaybackRate());
+		if (realDuration <= 0 || Double.isInfinite(realDuration)) {
+			return 0.0f;
+		}
+		float progress = getLastProgress();
+		float low = Math.max(0.0f, progress - VELOCITY_STEP);
+		float high = Math.min(1.0f, progress + VELOCITY_STEP);
+		float valueChange = (computeValue(high) - computeValue(low)) / (high - low);
+		float velocity = (float) (valueChange / realDuration);
+		return isReversed() ? -velocity : velocity;
+	}
+
+	/**
+	 * Gets the last value.
+	 * @return The value.
+	 */
+	public float getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the value the animation ends with.
+	 * @return The end value.
+	 */
+	public float getTo() {
+		return to;
+	}
+}
@@ -0,0 +1,26 @@
+package com.nukethemoon.tools.ani.jfr;
+
+import com.nukethemoon.tools.ani.AnimationTracer;
+import com.nukethemoon.tools.ani.BaseAnimation;
+
+/**
+ * A tracer that records JDK Flight Recorder events for animation controllers and animations.
+ * Flight Recorder needs Java 11 or newer. The jar replaces this class on Java 11+ (see src-java11).
+ * On older Java versions and Android this tracer does nothing, use {@link #isAvailable()}
+ * to not install it there.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class JfrTracer implements AnimationTracer {
+
+	/**
+	 * Returns true if Flight Recorder events can be recorded on the running Java version.
+	 * @return true on Java 11 or newer.
+	 */
+	public static boolean isAvailable() {
+		return false;
+	}
+
+	@Override
+	public void trace(int pEvent, BaseAnimation pAnimation, float pValue) { }
+}
@@ -0,0 +1,111 @@
+package com.nukethemoon.tools.ani.trace;
+
+import com.nukethemoon.tools.ani.AnimationTracer;
+import com.nukethemoon.tools.ani.BaseAnimation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A tracer that writes fixed size records into a memory mapped file used as ring buffer.
+ * The newest records overwrite the oldest. Since the operating system owns the mapped
+ * memory the trace survives a crash of the process. Use {@link TraceReader} to decode it.
+ * <p>
+ * Writing does not allocate and does not lock. Only one thread at a time may update
+ * the traced animations.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class RingBufferTracer implements AnimationTracer {
+
+	static final int MAGIC = 0x414E4954;
+	static final int VERSION = 1;
+
+	static final int HEADER_BYTES = 32;
+	static final int RECORD_BYTES = 24;
+
+	static final int OFFSET_MAGIC = 0;
+	static final int OFFSET_VERSION = 4;
+	static final int OFFSET_RECORD_BYTES = 8;
+	static final int OFFSET_CAPACITY = 12;
+	static final int OFFSET_WRITE_COUNT = 16;
+
+	static final int RECORD_OFFSET_TIME = 0;
+	static final int RECORD_OFFSET_ANIMATION_ID = 8;
+	static final int RECORD_OFFSET_EVENT = 12;
+	static final int RECORD_OFFSET_VALUE = 16;
+
+	private final RandomAccessFile file;
+	private final MappedByteBuffer buffer;
+	private final int capacity;
+
+	/**
+	 * The count of all records written so far.
+	 */
+	private long writeCount;
+
+	/**
+	 * Creates a new tracer and truncates the file.
+	 * @param pFile The file to write to.
+	 * @param pCapacity The count of records the ring buffer holds.
+	 * @throws IOException If the file can not be mapped.
+	 */
+	public RingBufferTracer(File pFile, int pCapacity) throws IOException {
+		if (pCapacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be higher than 0.");
+		}
+		capacity = pCapacity;
+		long size = HEADER_BYTES + (long) pCapacity * RECORD_BYTES;
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The capacity is too high.");
+		}
+		file = new RandomAccessFile(pFile, "rw");
+		file.setLength(0);
+		file.setLength(size);
+		buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+		buffer.putInt(OFFSET_MAGIC, MAGIC);
+		buffer.putInt(OFFSET_VERSION, VERSION);
+		buffer.putInt(OFFSET_RECORD_BYTES, RECORD_BYTES);
+		buffer.putInt(OFFSET_CAPACITY, capacity);
+		buffer.putLong(OFFSET_WRITE_COUNT, 0);
+	}
+
+	@Override
+	public void trace(int pEvent, BaseAnimation pAnimation, float pValue) {
+		long index = writeCount;
+		int position = HEADER_BYTES + (int) (index % capacity) * RECORD_BYTES;
+		buffer.putLong(position + RECORD_OFFSET_TIME, System.nanoTime());
+		buffer.putInt(position + RECORD_OFFSET_ANIMATION_ID, pAnimation != null ? pAnimation.getId() : 0);
+		buffer.putInt(position + RECORD_OFFSET_EVENT, pEvent);
+		buffer.putFloat(position + RECORD_OFFSET_VALUE, pValue);
+		writeCount = index + 1;
+		buffer.putLong(OFFSET_WRITE_COUNT, writeCount);
+	}
+
+	/**
+	 * Gets the count of all records written so far.
+	 * @return The count of records.
+	 */
+	public long getWriteCount() {
+		return writeCount;
+	}
+
+	/**
+	 * Writes the mapped records to the storage device.
+	 */
+	public void force() {
+		buffer.force();
+	}
+
+	/**
+	 * Writes the mapped records to the storage device and closes the file.
+	 * @throws IOException If closing fails.
+	 */
+	public void close() throws IOException {
+		buffer.force();
+		file.close();
+	}
+}
@@ -0,0 +1,191 @@
+package com.nukethemoon.tools.ani.trace;
+
+import com.nukethemoon.tools.ani.AnimationTracer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Decodes a trace file written by {@link RingBufferTracer}.
+ * <p>
+ * Usage: TraceReader &lt;file&gt; [--chrome]
+ * <br>
+ * Prints a timeline or with --chrome a JSON trace for chrome://tracing.
+ *
+ * @author lucahofmann@gmx.net
+ */
+public class TraceReader {
+
+	private final ByteBuffer buffer;
+	private final int capacity;
+	private final long writeCount;
+
+	/**
+	 * Reads a trace file.
+	 * @param pFile The trace file.
+	 * @throws IOException If the file can not be read or is not a trace file.
+	 */
+	public TraceReader(File pFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(pFile, "r");
+		try {
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		} finally {
+			file.close();
+		}
+		if (buffer.capacity() < RingBufferTracer.HEADER_BYTES
+				|| buffer.getInt(RingBufferTracer.OFFSET_MAGIC) != RingBufferTracer.MAGIC) {
+			throw new IOException("The file is not an animation trace.");
+		}
+		if (buffer.getInt(RingBufferTracer.OFFSET_VERSION) != RingBufferTracer.VERSION
+				|| buffer.getInt(RingBufferTracer.OFFSET_RECORD_BYTES) != RingBufferTracer.RECORD_BYTES) {
+			throw new IOException("Unsupported trace version.");
+		}
+		capacity = buffer.getInt(RingBufferTracer.OFFSET_CAPACITY);
+		writeCount = buffer.getLong(RingBufferTracer.OFFSET_WRITE_COUNT);
+	}
+
+	/**
+	 * Gets the count of records that are still available.
+	 * @return The count of records.
+	 */
+	public int getRecordCount() {
+		return (int) Math.min(writeCount, capacity);
+	}
+
+	private int getRecordPosition(int pRecordIndex) {
+		long firstRecord = writeCount - getRecordCount();
+		return RingBufferTracer.HEADER_BYTES
+				+ (int) ((firstRecord + pRecordIndex) % capacity) * RingBufferTracer.RECORD_BYTES;
+	}
+
+	/**
+	 * Gets the timestamp of a record. The records are ordered from old to new.
+	 * @param pRecordIndex The index of the record.
+	 * @return The timestamp in nanoseconds.
+	 */
+	public long getTimeNanos(int pRecordIndex) {
+		return buffer.getLong(getRecordPosition(pRecordIndex) + RingBufferTracer.RECORD_OFFSET_TIME);
+	}
+
+	/**
+	 * Gets the animation id of a record.
+	 * @param pRecordIndex The index of the record.
+	 * @return The animation id or 0 for controller events.
+	 */
+	public int getAnimationId(int pRecordIndex) {
+		return buffer.getInt(getRecordPosition(pRecordIndex) + RingBufferTracer.RECORD_OFFSET_ANIMATION_ID);
+	}
+
+	/**
+	 * Gets the event type of a record.
+	 * @param pRecordIndex The index of the record.
+	 * @return The event type. See {@link AnimationTracer}.
+	 */
+	public int getEvent(int pRecordIndex) {
+		return buffer.getInt(getRecordPosition(pRecordIndex) + RingBufferTracer.RECORD_OFFSET_EVENT);
+	}
+
+	/**
+	 * Gets the value of a record.
+	 * @param pRecordIndex The index of the record.
+	 * @return The value.
+	 */
+	public float getValue(int pRecordIndex) {
+		return buffer.getFloat(getRecordPosition(pRecordIndex) + RingBufferTracer.RECORD_OFFSET_VALUE);
+	}
+
+	/**
+	 * Gets the name of an event type.
+	 * @param pEvent The event type.
+	 * @return The name.
+	 */
+	public static String getEventName(int pEvent) {
+		switch (pEvent) {
+			case AnimationTracer.EVENT_FRAME_BEGIN: return "frameBegin";
+			case AnimationTracer.EVENT_FRAME_END: return "frameEnd";
+			case AnimationTracer.EVENT_START: return "start";
+			case AnimationTracer.EVENT_PROGRESS: return "progress";
+			case AnimationTracer.EVENT_LOOP: return "loop";
+			case AnimationTracer.EVENT_FINISH: return "finish";
+			case AnimationTracer.EVENT_LISTENER_BEGIN: return "listenerBegin";
+			case AnimationTracer.EVENT_LISTENER_END: return "listenerEnd";
+			default: return "unknown" + pEvent;
+		}
+	}
+
+	/**
+	 * Writes one line per record with the time relative to the first record.
+	 * @param pWriter The writer to write to.
+	 * @throws IOException If writing fails.
+	 */
+	public void writeTimeline(Writer pWriter) throws IOException {
+		int count = getRecordCount();
+		long startNanos = count > 0 ? getTimeNanos(0) : 0;
+		for (int i = 0; i < count; i++) {
+			long micros = (getTimeNanos(i) - startNanos) / 1000;
+			pWriter.write(micros + "us\t" + getEventName(getEvent(i))
+					+ "\t" + getAnimationId(i) + "\t" + getValue(i) + "\n");
+		}
+		pWriter.flush();
+	}
+
+	/**
+	 * Writes the records in the JSON trace event format of chrome://tracing.
+	 * Frames and listener calls become durations, other events become instant events
+	 * on one track per animation.
+	 * @param pWriter The writer to write to.
+	 * @throws IOException If writing fails.
+	 */
+	public void writeChromeTrace(Writer pWriter) throws IOException {
+		int count = getRecordCount();
+		long startNanos = count > 0 ? getTimeNanos(0) : 0;
+		pWriter.write("{\"traceEvents\":[\n");
+		for (int i = 0; i < count; i++) {
+			int event = getEvent(i);
+			int animationId = getAnimationId(i);
+			String phase;
+			String name;
+			int track;
+			if (event == AnimationTracer.EVENT_FRAME_BEGIN || event == AnimationTracer.EVENT_FRAME_END) {
+				phase = event == AnimationTracer.EVENT_FRAME_BEGIN ? "B" : "E";
+				name = "frame";
+				track = 0;
+			} else if (event == AnimationTracer.EVENT_LISTENER_BEGIN || event == AnimationTracer.EVENT_LISTENER_END) {
+				phase = event == AnimationTracer.EVENT_LISTENER_BEGIN ? "B" : "E";
+				name = "finishedListener";
+				track = 0;
+			} else {
+				phase = "i";
+				name = getEventName(event);
+				track = animationId;
+			}
+			double micros = (getTimeNanos(i) - startNanos) / 1000.0;
+			pWriter.write("{\"name\":\"" + name + "\",\"ph\":\"" + phase + "\",\"ts\":" + micros
+					+ ",\"pid\":1,\"tid\":" + track
+					+ ("i".equals(phase) ? ",\"s\":\"t\"" : "")
+					+ ",\"args\":{\"animation\":" + animationId + ",\"value\":" + getValue(i) + "}}"
+					+ (i < count - 1 ? ",\n" : "\n"));
+		}
+		pWriter.write("]}\n");
+		pWriter.flush();
+	}
+
+	public static void main(String[] pArgs) throws IOException {
+		if (pArgs.length < 1) {
+			System.err.println("Usage: TraceReader <file> [--chrome]");
+			System.exit(1);
+		}
+		TraceReader reader = new TraceReader(new File(pArgs[0]));
+		Writer writer = new OutputStreamWriter(System.out, "UTF-8");
+		if (pArgs.length > 1 && "--chrome".equals(pArgs[1])) {
+			reader.writeChromeTrace(writer);
+		} else {
+			reader.writeTimeline(writer);
+		}
+	}
+}
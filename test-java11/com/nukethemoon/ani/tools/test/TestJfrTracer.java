@@ -0,0 +1,119 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.jfr.JfrTracer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the Flight Recorder events of the Java 11 layer.
+ */
+public class TestJfrTracer {
+
+	private static final String FRAME = "com.nukethemoon.ani.AniFrame";
+	private static final String START = "com.nukethemoon.ani.AnimationStart";
+	private static final String FINISH = "com.nukethemoon.ani.AnimationFinish";
+	private static final String LOOP = "com.nukethemoon.ani.AnimationLoop";
+
+	@Test
+	public void testFrameStartAndFinishEvents() throws IOException {
+		assertEquals(true, JfrTracer.isAvailable());
+
+		TestAnimation animation = new TestAnimation(100, null);
+		animation.setLoopLength(1);
+		Path file = Files.createTempFile("ani", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FRAME);
+			recording.enable(START);
+			recording.enable(FINISH);
+			recording.enable(LOOP);
+			recording.start();
+
+			Ani controller = new Ani(new ManualClock()).setTracer(new JfrTracer());
+			controller.add(animation);
+			controller.runUntilIdle(10, 1000);
+
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+
+		int frames = 0;
+		int finishedInFrames = 0;
+		int starts = 0;
+		int finishes = 0;
+		int loops = 0;
+		for (RecordedEvent event : events) {
+			switch (event.getEventType().getName()) {
+				case FRAME:
+					frames++;
+					finishedInFrames += event.getInt("finishedCount");
+					break;
+				case START:
+					starts++;
+					assertEquals(animation.getId(), event.getInt("animationId"));
+					assertEquals(TestAnimation.class.getName(), event.getString("animationClass"));
+					break;
+				case FINISH:
+					finishes++;
+					assertEquals(animation.getId(), event.getInt("animationId"));
+					assertEquals(1, event.getInt("loopCount"));
+					break;
+				case LOOP:
+					loops++;
+					assertEquals(1, event.getInt("loopIndex"));
+					break;
+				default:
+					break;
+			}
+		}
+		assertEquals(true, frames >= 20);
+		assertEquals(1, finishedInFrames);
+		assertEquals(1, starts);
+		assertEquals(1, finishes);
+		assertEquals(1, loops);
+	}
+
+	@Test
+	public void testDisabledEventsAreNotRecorded() throws IOException {
+		Path file = Files.createTempFile("ani", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FINISH);
+			recording.disable(FRAME);
+			recording.disable(START);
+			recording.disable(LOOP);
+			recording.start();
+
+			Ani controller = new Ani(new ManualClock()).setTracer(new JfrTracer());
+			controller.add(new TestAnimation(30, null));
+			controller.runUntilIdle(10, 1000);
+
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		Files.delete(file);
+
+		int finishes = 0;
+		for (RecordedEvent event : events) {
+			String name = event.getEventType().getName();
+			assertEquals(false, FRAME.equals(name) || START.equals(name) || LOOP.equals(name));
+			if (FINISH.equals(name)) {
+				finishes++;
+			}
+		}
+		assertEquals(1, finishes);
+	}
+}
@@ -0,0 +1,143 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationCueListener;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.BlendAnimation;
+import com.nukethemoon.tools.ani.BlendChannel;
+import com.nukethemoon.tools.ani.BlendListener;
+import com.nukethemoon.tools.ani.Easings;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that updating a steady-state workload does not allocate.
+ * Covers looping, reversed and delayed animations, sequences, cues, finished
+ * listeners, targets, tags, conflict keys and blend channels.
+ */
+public class TestAllocation {
+
+	private static final int WARM_UP_FRAMES = 2000;
+	private static final int MEASURED_FRAMES = 1000;
+	private static final int MEASURED_WINDOWS = 10;
+
+	private static final AnimationCueListener NO_OP_CUE = new AnimationCueListener() {
+		@Override
+		public void onCue(BaseAnimation pAnimation, float pProgress) { }
+	};
+
+	private static Ani createWorkload(ManualClock pClock) {
+		final Ani controller = new Ani(pClock);
+
+		for (int i = 0; i < 20; i++) {
+			BaseAnimation looping = new TestAnimation(100 + i * 7, null).loopInfinite();
+			looping.setEasing(Easings.CUBIC_IN_OUT);
+			looping.addCue(0.5f, NO_OP_CUE);
+			if (i % 2 == 0) {
+				looping.setPlaybackRate(-1.5f);
+			}
+			controller.add(looping);
+		}
+
+		// finished animations add themselves again with a delay and empty their groups
+		Object[] widgets = new Object[10];
+		for (int i = 0; i < 10; i++) {
+			widgets[i] = new Object();
+		}
+		for (int i = 0; i < 10; i++) {
+			BaseAnimation restarting = new TestAnimation(50 + i * 5, null);
+			restarting.setTarget(widgets[i % 3]);
+			restarting.setConflictKey(widgets[i], "alpha");
+			restarting.addTag("restarting");
+			restarting.addTag("restarting-" + i);
+			restarting.addFinishedListener(new AnimationFinishedListener() {
+				@Override
+				public void onAnimationFinished(BaseAnimation pAnimation) {
+					controller.add(25, pAnimation);
+				}
+			});
+			restarting.addFinishedListener(new AnimationFinishedListener() {
+				@Override
+				public void onAnimationFinished(BaseAnimation pAnimation) { }
+			});
+			controller.add(restarting);
+		}
+
+		// layers of one property
+		BlendChannel channel = new BlendChannel(2, new BlendListener() {
+			@Override
+			public void onBlend(float[] pValues) { }
+		});
+		controller.addBlendChannel(channel);
+		for (int i = 0; i < 4; i++) {
+			BlendAnimation layer = new BlendAnimation(channel, i % 2 == 0, 80 + i * 30) {
+				@Override
+				protected void onBlend(float pProgress, float[] pValues) {
+					pValues[0] = pProgress;
+					pValues[1] = -pProgress;
+				}
+			};
+			layer.loopInfinite();
+			controller.add(layer);
+		}
+
+		// a sequence that starts again after it ended
+		final BaseAnimation[] sequence = new BaseAnimation[] {
+				new TestAnimation(40, null),
+				new TestAnimation(60, null).setLoopLength(1),
+				new TestAnimation(30, null)
+		};
+		controller.addSequence(sequence, new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				controller.add(10, sequence[0]);
+			}
+		});
+		return controller;
+	}
+
+	@Test
+	public void testSteadyStateDoesNotAllocate() {
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+
+		ManualClock clock = new ManualClock();
+		Ani controller = createWorkload(clock);
+		controller.advance(WARM_UP_FRAMES * 16L, 16);
+
+		// the cost of the measurement itself
+		long overhead = -threadBean.getThreadAllocatedBytes(threadId) + threadBean.getThreadAllocatedBytes(threadId);
+
+		// C2 allocates when it deoptimizes a method and rebuilds the objects it had scalar
+		// replaced. This happens a few times at unpredictable frames, also long after the
+		// warm-up, and never with C1 or the interpreter. Every path of the workload runs
+		// many times within a window, so an allocation of the workload shows up in every window.
+		long allocated = 0;
+		for (int window = 0; window < MEASURED_WINDOWS; window++) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < MEASURED_FRAMES; i++) {
+				clock.advance(16);
+				controller.update();
+			}
+			allocated = threadBean.getThreadAllocatedBytes(threadId) - before - overhead;
+			if (allocated == 0) {
+				break;
+			}
+		}
+
+		assertEquals(true, controller.getAnimationCount() >= 20);
+		assertEquals(true, controller.getAnimationCountByTag("restarting") <= 10);
+		assertEquals("Allocated bytes per frame", 0.0, (double) allocated / MEASURED_FRAMES, 0.0);
+	}
+}
@@ -0,0 +1,65 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.AnimatedFloat;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationClock;
+import com.nukethemoon.tools.ani.Easings;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests values that are computed on read.
+ */
+public class TestAnimatedFloat {
+
+	@Test
+	public void testValueOnRead() {
+		ManualClock clock = new ManualClock();
+		AnimatedFloat value = new AnimatedFloat(clock, 10);
+		assertEquals(10.0f, value.get(), 0.0f);
+		assertEquals(false, value.isAnimating());
+
+		value.animateTo(20, 100);
+		assertEquals(100, value.getDeadline());
+		clock.advance(25);
+		assertEquals(12.5f, value.get(), 0.0001f);
+		clock.advance(500);
+		assertEquals(true, value.getDeadline() != -1);
+		assertEquals(20.0f, value.get(), 0.0f);
+		assertEquals(-1, value.getDeadline());
+		assertEquals(false, value.isAnimating());
+	}
+
+	@Test
+	public void testRetargetFromCurrentValue() {
+		ManualClock clock = new ManualClock();
+		AnimatedFloat value = new AnimatedFloat(clock, 0).setEasing(Easings.LINEAR);
+		value.animateTo(100, 100);
+		clock.advance(50);
+		value.animateTo(0, 50);
+		assertEquals(50.0f, value.get(), 0.0001f);
+		clock.advance(25);
+		assertEquals(25.0f, value.get(), 0.0001f);
+		assertEquals(0.0f, value.getTarget(), 0.0f);
+	}
+
+	@Test
+	public void testFrameClock() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		AnimationClock frameClock = controller.getFrameClock();
+		AnimatedFloat value = new AnimatedFloat(frameClock, 0);
+		value.animateTo(1, 100);
+
+		clock.advance(50);
+		// the frame time only changes with an update
+		assertEquals(0.0f, value.get(), 0.0f);
+		controller.update();
+		assertEquals(50, frameClock.getTimeMillis());
+		assertEquals(0.5f, value.get(), 0.0001f);
+		clock.advance(10);
+		assertEquals(0.5f, value.get(), 0.0001f);
+	}
+}
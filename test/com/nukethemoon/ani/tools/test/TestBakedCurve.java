@@ -0,0 +1,111 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.BakedAnimation;
+import com.nukethemoon.tools.ani.BakedCurve;
+import com.nukethemoon.tools.ani.BakedCurveCache;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.CurveSource;
+import com.nukethemoon.tools.ani.Easings;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests baked curves and their cache.
+ */
+public class TestBakedCurve {
+
+	private static class CountingSource implements CurveSource {
+
+		private int evaluations;
+
+		@Override
+		public int getChannelCount() {
+			return 2;
+		}
+
+		@Override
+		public void evaluate(float pProgress, float[] pValues) {
+			evaluations++;
+			pValues[0] = Easings.QUAD_IN_OUT.apply(pProgress) * 100;
+			float interval = BaseAnimation.computeIntervalProgress(pProgress, 0.5f, 1.0f);
+			pValues[1] = interval < 0 ? (pProgress < 0.5f ? 0 : 1) : interval;
+		}
+	}
+
+	@Test
+	public void testSampling() {
+		CountingSource source = new CountingSource();
+		BakedCurve curve = BakedCurve.bake(source, 257);
+		assertEquals(257, source.evaluations);
+		assertEquals(0.0f, curve.sample(0.0f, 0), 0.0f);
+		assertEquals(100.0f, curve.sample(1.0f, 0), 0.0f);
+		assertEquals(Easings.QUAD_IN_OUT.apply(0.3f) * 100, curve.sample(0.3f, 0), 0.05f);
+		assertEquals(0.5f, curve.sample(0.75f, 1), 0.001f);
+
+		float[] values = new float[2];
+		curve.sample(0.75f, values);
+		assertEquals(curve.sample(0.75f, 0), values[0], 0.0f);
+		assertEquals(24 + 16 + 257 * 2 * 4, curve.getMemoryBytes());
+	}
+
+	@Test
+	public void testCacheIsBoundedLru() {
+		BakedCurveCache cache = new BakedCurveCache(2);
+		CountingSource source = new CountingSource();
+		BakedCurve intro = cache.get("intro", source, 10);
+		cache.get("outro", source, 10);
+		assertEquals(intro, cache.get("intro", source, 10));
+		assertEquals(20, source.evaluations);
+
+		// removes outro since intro was used more recently
+		cache.get("popIn", source, 10);
+		assertEquals(2, cache.size());
+		assertEquals(null, cache.get("outro"));
+		assertEquals(intro, cache.get("intro"));
+		assertEquals(2 * intro.getMemoryBytes(), cache.getMemoryBytes());
+		assertEquals(true, cache.getMemoryReport().startsWith("popIn: 10 samples x 2 channels, "));
+	}
+
+	@Test
+	public void testCacheRejectsOtherSampleCount() {
+		BakedCurveCache cache = new BakedCurveCache(2);
+		CountingSource source = new CountingSource();
+		BakedCurve coarse = cache.get("intro", source, 10);
+		try {
+			cache.get("intro", source, 100);
+			fail("The curve is cached with 10 samples.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(coarse, cache.get("intro", source, 10));
+		assertEquals(10, source.evaluations);
+
+		// one key per count of samples
+		BakedCurve fine = cache.get("intro:100", source, 100);
+		assertEquals(100, fine.getSampleCount());
+		assertEquals(2, cache.size());
+		assertEquals(coarse, cache.get("intro", source, 10));
+	}
+
+	@Test
+	public void testReplay() {
+		CountingSource source = new CountingSource();
+		BakedCurve curve = BakedCurve.bake(source, 101);
+		final float[] lastValues = new float[2];
+		Ani controller = new Ani(new ManualClock());
+		controller.add(new BakedAnimation(curve, 100) {
+			@Override
+			protected void onValues(float[] pValues) {
+				System.arraycopy(pValues, 0, lastValues, 0, 2);
+			}
+		});
+		controller.advance(75, 5);
+		assertEquals(101, source.evaluations);
+		assertEquals(0.5f, lastValues[1], 0.001f);
+		controller.advance(30, 5);
+		assertEquals(100.0f, lastValues[0], 0.0f);
+	}
+}
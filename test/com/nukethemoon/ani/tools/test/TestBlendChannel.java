@@ -0,0 +1,223 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.BlendAnimation;
+import com.nukethemoon.tools.ani.BlendChannel;
+import com.nukethemoon.tools.ani.BlendListener;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests blending the layers of several animations per property.
+ */
+public class TestBlendChannel {
+
+	private static class RecordingListener implements BlendListener {
+
+		private int calls = 0;
+		private float value;
+
+		@Override
+		public void onBlend(float[] pValues) {
+			calls++;
+			value = pValues[0];
+		}
+	}
+
+	/**
+	 * A layer that moves linear from 0.0 to a value.
+	 */
+	private static class LinearLayer extends BlendAnimation {
+
+		private final float to;
+
+		LinearLayer(BlendChannel pChannel, boolean pAdditive, int pDurationMillis, float pTo) {
+			super(pChannel, pAdditive, pDurationMillis);
+			to = pTo;
+		}
+
+		@Override
+		protected void onBlend(float pProgress, float[] pValues) {
+			pValues[0] = to * pProgress;
+		}
+	}
+
+	@Test
+	public void testWeightedAndAdditiveLayers() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener).setBase(0, 10.0f);
+		controller.addBlendChannel(channel);
+
+		BlendAnimation move = new LinearLayer(channel, false, 100, 20.0f).setWeight(0.5f);
+		BlendAnimation shake = new LinearLayer(channel, true, 100, 4.0f);
+		controller.add(move).add(shake);
+
+		clock.advance(50);
+		controller.update();
+		// 10 * 0.5 + 10 * 0.5 + 2
+		assertEquals(12.0f, listener.value, 0.0001f);
+		assertEquals(1, listener.calls);
+		assertEquals(2, channel.getLayerCount());
+
+		clock.advance(50);
+		controller.update();
+		assertEquals(19.0f, listener.value, 0.0001f);
+		assertEquals(2, listener.calls);
+	}
+
+	@Test
+	public void testWeightsAreNormalized() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener).setBase(0, 50.0f);
+		controller.addBlendChannel(channel);
+
+		controller.add(new LinearLayer(channel, false, 100, 0.0f));
+		controller.add(new LinearLayer(channel, false, 100, 100.0f).setWeight(3.0f));
+		clock.advance(100);
+		controller.update();
+		assertEquals(75.0f, listener.value, 0.0001f);
+		assertEquals(75.0f, channel.getValue(0), 0.0001f);
+	}
+
+	@Test
+	public void testFinishedAndCanceledLayersAreRemoved() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener).setBase(0, 1.0f);
+		controller.addBlendChannel(channel);
+
+		BlendAnimation shortLayer = new LinearLayer(channel, true, 20, 10.0f);
+		BlendAnimation longLayer = new LinearLayer(channel, true, 1000, 100.0f);
+		longLayer.loopInfinite();
+		controller.add(shortLayer).add(longLayer);
+
+		clock.advance(20);
+		controller.update();
+		assertEquals(13.0f, listener.value, 0.0001f);
+
+		// finishes with the first frame after its duration
+		clock.advance(10);
+		controller.update();
+		assertEquals(true, shortLayer.isFinished());
+		assertEquals(2, channel.getLayerCount());
+		assertEquals(14.0f, listener.value, 0.0001f);
+
+		clock.advance(10);
+		controller.update();
+		assertEquals(1, channel.getLayerCount());
+		assertEquals(5.0f, listener.value, 0.0001f);
+
+		controller.cancel(longLayer);
+		clock.advance(10);
+		controller.update();
+		assertEquals(0, channel.getLayerCount());
+		assertEquals(1.0f, listener.value, 0.0001f);
+	}
+
+	@Test
+	public void testUnchangedFramesDoNotCallTheListener() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener);
+		controller.addBlendChannel(channel);
+
+		BlendAnimation layer = new LinearLayer(channel, true, 100, 100.0f);
+		controller.add(layer);
+		clock.advance(40);
+		controller.update();
+		assertEquals(1, listener.calls);
+
+		// a paused layer keeps its value
+		layer.pause();
+		clock.advance(40);
+		controller.update();
+		controller.update();
+		assertEquals(1, listener.calls);
+		assertEquals(40.0f, channel.getValue(0), 0.0001f);
+
+		assertEquals(true, controller.removeBlendChannel(channel));
+		layer.resume();
+		clock.advance(10);
+		controller.update();
+		assertEquals(1, listener.calls);
+		assertEquals(false, controller.removeBlendChannel(channel));
+	}
+
+	@Test
+	public void testFixedTimeStepCallsTheListenerOncePerUpdate() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock).setFixedTimeStep(10, 8);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener);
+		controller.addBlendChannel(channel);
+		controller.add(new LinearLayer(channel, true, 100, 100.0f));
+
+		// catches up five steps
+		clock.advance(50);
+		controller.update();
+		assertEquals(1, listener.calls);
+		assertEquals(50.0f, listener.value, 0.0001f);
+	}
+
+	@Test
+	public void testChannelIsAddedByItsFirstLayer() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener).setBase(0, 1.0f);
+
+		controller.add(new LinearLayer(channel, true, 100, 10.0f));
+		clock.advance(50);
+		controller.update();
+		assertEquals(6.0f, listener.value, 0.0001f);
+		assertEquals(true, controller.removeBlendChannel(channel));
+
+		try {
+			controller.addBlendChannel(channel);
+			new Ani(clock).addBlendChannel(channel);
+			fail("A channel can only be applied by one controller.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testRemovedChannelIsNotAddedAgain() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		BlendChannel channel = new BlendChannel(1, listener);
+
+		BlendAnimation running = new LinearLayer(channel, true, 1000, 100.0f);
+		BlendAnimation ending = new LinearLayer(channel, true, 20, 10.0f);
+		controller.add(running).add(ending);
+		clock.advance(10);
+		controller.update();
+		assertEquals(1, listener.calls);
+		assertEquals(2, channel.getLayerCount());
+
+		assertEquals(true, controller.removeBlendChannel(channel));
+		assertEquals(0, channel.getLayerCount());
+		controller.advance(50, 10);
+		assertEquals(true, ending.isFinished());
+		assertEquals(1, listener.calls);
+		assertEquals(0, channel.getLayerCount());
+		assertEquals(false, controller.removeBlendChannel(channel));
+
+		// adding it again adds the running layer with the next frame
+		controller.addBlendChannel(channel);
+		clock.advance(40);
+		controller.update();
+		assertEquals(2, listener.calls);
+		assertEquals(1, channel.getLayerCount());
+		assertEquals(10.0f, listener.value, 0.0001f);
+	}
+}
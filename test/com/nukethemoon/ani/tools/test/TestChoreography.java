@@ -0,0 +1,234 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.Choreography;
+import com.nukethemoon.tools.ani.ConflictPolicy;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests choreography scripts.
+ */
+public class TestChoreography {
+
+	private static class TimedAnimation extends BaseAnimation {
+
+		private final ManualClock clock;
+		private long timeStarted = -1;
+		private long timeFinished = -1;
+
+		TimedAnimation(ManualClock pClock, int pDurationMillis) {
+			super(pDurationMillis);
+			clock = pClock;
+		}
+
+		@Override
+		protected void onProgress(float pProgress) { }
+
+		@Override
+		protected void onStart() {
+			timeStarted = clock.getTimeMillis();
+		}
+
+		@Override
+		protected void onFinish() {
+			timeFinished = clock.getTimeMillis();
+		}
+	}
+
+	private static void runUntilDone(Ani pController, Choreography pChoreography) throws InterruptedException {
+		for (int i = 0; i < 10000 && !pChoreography.isDone(); i++) {
+			pController.advance(10, 10);
+			pChoreography.join(1);
+		}
+		assertEquals(true, pChoreography.isDone());
+	}
+
+	@Test
+	public void testSequentialScript() throws InterruptedException {
+		final ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final TimedAnimation a = new TimedAnimation(clock, 100);
+		final TimedAnimation b = new TimedAnimation(clock, 50);
+		final TimedAnimation c = new TimedAnimation(clock, 80);
+		final TimedAnimation d = new TimedAnimation(clock, 40);
+		final long[] timeAfterSleep = new long[1];
+
+		Choreography choreography = Choreography.start(controller, new Choreography.Script() {
+			@Override
+			public void run(Choreography pChoreography) throws InterruptedException {
+				pChoreography.play(a);
+				pChoreography.playAll(b, c);
+				pChoreography.sleep(200);
+				timeAfterSleep[0] = clock.getTimeMillis();
+				d.setLoopLength(1);
+				pChoreography.play(d);
+			}
+		});
+		runUntilDone(controller, choreography);
+
+		assertEquals(null, choreography.getFailure());
+		assertEquals(true, b.timeStarted >= a.timeFinished);
+		assertEquals(b.timeStarted, c.timeStarted);
+		assertEquals(true, timeAfterSleep[0] >= c.timeFinished + 200);
+		assertEquals(true, d.timeStarted >= timeAfterSleep[0]);
+		// two runs of 40 ms end with the first frame after them
+		assertEquals(90, d.timeFinished - d.timeStarted);
+	}
+
+	@Test
+	public void testRemoveFinishedListener() {
+		final int[] calls = new int[2];
+		AnimationFinishedListener first = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				calls[0]++;
+			}
+		};
+		AnimationFinishedListener second = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				calls[1]++;
+			}
+		};
+		ManualClock clock = new ManualClock();
+		TimedAnimation animation = new TimedAnimation(clock, 10);
+		animation.addFinishedListener(first).addFinishedListener(second);
+		animation.removeFinishedListener(first);
+		animation.callAnimationFinishedListeners();
+		animation.removeFinishedListener(second).addFinishedListener(first);
+		animation.callAnimationFinishedListeners();
+		assertEquals(1, calls[0]);
+		assertEquals(1, calls[1]);
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final TimedAnimation endless = new TimedAnimation(clock, 100);
+		endless.loopInfinite();
+		Choreography choreography = Choreography.start(controller, new Choreography.Script() {
+			@Override
+			public void run(Choreography pChoreography) throws InterruptedException {
+				pChoreography.play(endless);
+			}
+		});
+		controller.advance(100, 10);
+		assertEquals(false, choreography.isDone());
+		choreography.cancel();
+		assertEquals(true, choreography.join(5000));
+		assertEquals(null, choreography.getFailure());
+	}
+
+	@Test
+	public void testCancelledAnimationEndsPlay() throws InterruptedException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final TimedAnimation endless = new TimedAnimation(clock, 100);
+		endless.loopInfinite();
+		final TimedAnimation other = new TimedAnimation(clock, 300);
+		final boolean[] continued = new boolean[1];
+		Choreography choreography = Choreography.start(controller, new Choreography.Script() {
+			@Override
+			public void run(Choreography pChoreography) throws InterruptedException {
+				pChoreography.playAll(endless, other);
+				continued[0] = true;
+			}
+		});
+		for (int i = 0; i < 10000 && !endless.hasStarted(); i++) {
+			controller.advance(10, 10);
+			choreography.join(1);
+		}
+		controller.cancel(endless);
+		controller.advance(100, 10);
+		// waits for the other animation
+		assertEquals(false, choreography.join(50));
+
+		runUntilDone(controller, choreography);
+		assertEquals(true, other.isFinished());
+		assertEquals(false, continued[0]);
+		assertEquals(true, choreography.getFailure() instanceof CancellationException);
+	}
+
+	@Test
+	public void testRejectedAnimationEndsPlay() throws InterruptedException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock).setConflictPolicy(ConflictPolicy.IGNORE);
+		Object widget = new Object();
+		TimedAnimation running = new TimedAnimation(clock, 1000);
+		running.setConflictKey(widget, "alpha");
+		controller.add(running);
+		final TimedAnimation ignored = new TimedAnimation(clock, 100);
+		ignored.setConflictKey(widget, "alpha");
+		Choreography choreography = Choreography.start(controller, new Choreography.Script() {
+			@Override
+			public void run(Choreography pChoreography) throws InterruptedException {
+				pChoreography.play(ignored);
+			}
+		});
+		runUntilDone(controller, choreography);
+		assertEquals(false, ignored.hasStarted());
+		assertEquals(false, running.isFinished());
+		assertEquals(true, choreography.getFailure() instanceof CancellationException);
+	}
+
+	@Test
+	public void testReplaceWithQueuedAnimation() throws InterruptedException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		Object widget = new Object();
+		TimedAnimation running = new TimedAnimation(clock, 1000);
+		running.setConflictKey(widget, "alpha");
+		final TimedAnimation queued = new TimedAnimation(clock, 100);
+		queued.setConflictKey(widget, "alpha");
+		TimedAnimation last = new TimedAnimation(clock, 100);
+		last.setConflictKey(widget, "alpha");
+		controller.add(running).add(queued, ConflictPolicy.QUEUE).add(last, ConflictPolicy.QUEUE);
+
+		// replaces the running animation it waits behind
+		Choreography choreography = Choreography.start(controller, new Choreography.Script() {
+			@Override
+			public void run(Choreography pChoreography) throws InterruptedException {
+				pChoreography.play(queued);
+			}
+		});
+		runUntilDone(controller, choreography);
+		assertEquals(null, choreography.getFailure());
+		assertEquals(true, queued.isFinished());
+		assertEquals(false, running.isFinished());
+		assertEquals(false, last.hasStarted());
+	}
+
+	@Test
+	public void testQueueWithQueuedAnimation() throws InterruptedException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock).setConflictPolicy(ConflictPolicy.QUEUE);
+		Object widget = new Object();
+		TimedAnimation running = new TimedAnimation(clock, 200);
+		running.setConflictKey(widget, "alpha");
+		final TimedAnimation queued = new TimedAnimation(clock, 100);
+		queued.setConflictKey(widget, "alpha");
+		controller.add(running).add(queued);
+
+		// the animation is already waiting and plays once
+		Choreography choreography = Choreography.start(controller, new Choreography.Script() {
+			@Override
+			public void run(Choreography pChoreography) throws InterruptedException {
+				pChoreography.play(queued);
+			}
+		});
+		runUntilDone(controller, choreography);
+		assertEquals(null, choreography.getFailure());
+		assertEquals(true, running.isFinished());
+		assertEquals(true, queued.isFinished());
+		assertEquals(true, queued.timeStarted >= running.timeFinished);
+		assertEquals(0, controller.getAnimationCount());
+	}
+}
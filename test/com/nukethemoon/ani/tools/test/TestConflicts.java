@@ -0,0 +1,201 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ConflictPolicy;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the handling of animations that animate the same target property.
+ */
+public class TestConflicts {
+
+	private static TestAnimation createFade(Object pTarget) {
+		TestAnimation animation = new TestAnimation(100, null);
+		animation.setConflictKey(pTarget, "alpha");
+		return animation;
+	}
+
+	@Test
+	public void testReplace() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+
+		TestAnimation last = null;
+		for (int i = 0; i < 1000; i++) {
+			last = createFade(widget);
+			controller.add(last);
+		}
+		assertEquals("Only the newest animation may run.", 1, controller.getAnimationCount());
+		assertEquals(true, last.hasStarted());
+
+		TestAnimation move = new TestAnimation(100, null);
+		move.setConflictKey(widget, "x");
+		controller.add(move);
+		assertEquals(2, controller.getAnimationCount());
+	}
+
+	@Test
+	public void testReplaceAfterReAdd() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+
+		// free index entries are reused and removed after many other properties ended
+		for (int i = 0; i < 200; i++) {
+			TestAnimation other = createFade(new Object());
+			other.setTarget(widget).addTag("fade");
+			controller.add(other);
+			controller.cancel(other);
+			TestAnimation first = createFade(widget);
+			TestAnimation second = createFade(widget);
+			controller.add(first).add(second);
+			assertEquals(1, controller.getAnimationCount());
+			assertEquals(0, controller.getAnimationCountByTag("fade"));
+			controller.cancel(second);
+		}
+		assertEquals(0, controller.getAnimationCount());
+		assertEquals(0, controller.getAnimationCountByTarget(widget));
+	}
+
+	@Test
+	public void testIgnore() {
+		Ani controller = new Ani(new ManualClock()).setConflictPolicy(ConflictPolicy.IGNORE);
+		Object widget = new Object();
+
+		TestAnimation first = createFade(widget);
+		TestAnimation second = createFade(widget);
+		controller.add(first).add(second);
+
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals(true, first.hasStarted());
+		assertEquals(false, second.hasStarted());
+	}
+
+	@Test
+	public void testQueue() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		Object widget = new Object();
+
+		TestAnimation first = createFade(widget);
+		TestAnimation second = createFade(widget);
+		TestAnimation third = createFade(widget);
+		controller.add(first)
+				.add(second, ConflictPolicy.QUEUE)
+				.add(third, ConflictPolicy.QUEUE);
+
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals(false, second.hasStarted());
+
+		controller.advance(120, 10);
+		assertEquals(true, first.isFinished());
+		assertEquals(true, second.hasStarted());
+		assertEquals(false, third.hasStarted());
+
+		controller.runUntilIdle(10, 1000);
+		assertEquals(true, third.isFinished());
+	}
+
+	@Test
+	public void testCancelDropsQueue() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+
+		TestAnimation first = createFade(widget);
+		TestAnimation second = createFade(widget);
+		controller.add(first).add(second, ConflictPolicy.QUEUE);
+		controller.cancel(first);
+
+		assertEquals(true, controller.runUntilIdle(10, 1000));
+		assertEquals(false, second.hasStarted());
+	}
+
+	@Test
+	public void testQueueIgnoresQueuedAnimations() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+		final List<TestAnimation> finished = new ArrayList<TestAnimation>();
+		AnimationFinishedListener listener = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				finished.add((TestAnimation) pAnimation);
+			}
+		};
+
+		TestAnimation first = createFade(widget);
+		TestAnimation second = createFade(widget);
+		TestAnimation third = createFade(widget);
+		first.addFinishedListener(listener);
+		second.addFinishedListener(listener);
+		third.addFinishedListener(listener);
+		controller.add(first)
+				.add(second, ConflictPolicy.QUEUE)
+				.add(third, ConflictPolicy.QUEUE)
+				// already queued in the middle and at the end
+				.add(second, ConflictPolicy.QUEUE)
+				.add(third, ConflictPolicy.QUEUE)
+				.add(first, ConflictPolicy.QUEUE);
+
+		assertEquals(true, controller.runUntilIdle(10, 2000));
+		assertEquals(3, finished.size());
+		assertEquals(first, finished.get(0));
+		assertEquals(second, finished.get(1));
+		assertEquals(third, finished.get(2));
+	}
+
+	@Test
+	public void testQueueBurstKeepsOrder() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+		final List<BaseAnimation> finished = new ArrayList<BaseAnimation>();
+		AnimationFinishedListener listener = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				finished.add(pAnimation);
+			}
+		};
+
+		List<BaseAnimation> burst = new ArrayList<BaseAnimation>();
+		for (int i = 0; i < 1000; i++) {
+			TestAnimation animation = new TestAnimation(0, listener);
+			animation.setConflictKey(widget, "alpha");
+			burst.add(animation);
+			controller.add(animation, ConflictPolicy.QUEUE);
+		}
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals(true, controller.runUntilIdle(1, 100000));
+		assertEquals(burst, finished);
+	}
+
+	@Test
+	public void testStopDropsQueue() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+
+		TestAnimation first = createFade(widget);
+		TestAnimation second = createFade(widget);
+		TestAnimation third = createFade(widget);
+		controller.add(first)
+				.add(second, ConflictPolicy.QUEUE)
+				.add(third, ConflictPolicy.QUEUE);
+		controller.stop(first);
+
+		assertEquals(true, controller.runUntilIdle(10, 1000));
+		assertEquals(false, second.hasStarted());
+		assertEquals(false, third.hasStarted());
+
+		// dropped animations can be added and queued again
+		controller.add(second).add(third, ConflictPolicy.QUEUE);
+		assertEquals(true, second.hasStarted());
+		assertEquals(true, controller.runUntilIdle(10, 1000));
+		assertEquals(true, third.isFinished());
+	}
+}
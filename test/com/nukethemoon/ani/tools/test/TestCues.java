@@ -0,0 +1,106 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationCueListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the dispatch of cue points.
+ */
+public class TestCues {
+
+	private static class RecordingCue implements AnimationCueListener {
+
+		private final String name;
+		private final List<String> calls;
+
+		RecordingCue(String pName, List<String> pCalls) {
+			name = pName;
+			calls = pCalls;
+		}
+
+		@Override
+		public void onCue(BaseAnimation pAnimation, float pProgress) {
+			calls.add(name + pAnimation.getLoopIndex());
+		}
+	}
+
+	private static TestAnimation createAnimation(List<String> pCalls) {
+		TestAnimation animation = new TestAnimation(100, null);
+		animation.addCue(0.9f, new RecordingCue("d", pCalls));
+		animation.addCue(0.3f, new RecordingCue("a", pCalls));
+		animation.addCue(0.5f, new RecordingCue("b", pCalls));
+		animation.addCue(0.5f, new RecordingCue("c", pCalls));
+		return animation;
+	}
+
+	@Test
+	public void testCoarseTickCallsAllCuesInOrder() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		List<String> calls = new ArrayList<String>();
+		controller.add(createAnimation(calls).setLoopLength(1));
+
+		clock.advance(40);
+		controller.update();
+		assertEquals("[a0]", calls.toString());
+
+		// jumps over the rest of the first loop and into the second
+		clock.advance(100);
+		controller.update();
+		assertEquals("[a0, b0, c0, d0, a1]", calls.toString());
+
+		clock.advance(1000);
+		controller.update();
+		assertEquals("[a0, b0, c0, d0, a1, b1, c1, d1]", calls.toString());
+	}
+
+	@Test
+	public void testPauseDoesNotRepeatCues() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		List<String> calls = new ArrayList<String>();
+		TestAnimation animation = createAnimation(calls);
+		controller.add(animation);
+		clock.advance(60);
+		controller.update();
+		animation.pause();
+		clock.advance(500);
+		controller.update();
+		animation.resume();
+		controller.update();
+		assertEquals("[a0, b0, c0]", calls.toString());
+	}
+
+	@Test
+	public void testReverseAndSeek() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		List<String> calls = new ArrayList<String>();
+		TestAnimation animation = createAnimation(calls);
+		controller.add(animation);
+
+		// seeking does not call the skipped cues
+		animation.seek(0.6f);
+		controller.update();
+		assertEquals("[]", calls.toString());
+
+		// plays back from 0.6 to 0.0
+		animation.setPlaybackRate(-1.0f);
+		clock.advance(20);
+		controller.update();
+		assertEquals("[c0, b0]", calls.toString());
+		clock.advance(100);
+		controller.update();
+		assertEquals("[c0, b0, a0]", calls.toString());
+		assertEquals(true, animation.isFinished());
+	}
+}
@@ -0,0 +1,162 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationDefinition;
+import com.nukethemoon.tools.ani.AnimationDefinitions;
+import com.nukethemoon.tools.ani.AnimationFactory;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.Easings;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.StaggerAnimation;
+import com.nukethemoon.tools.ani.StaggerOffsets;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests animation definitions loaded from specs.
+ */
+public class TestDefinitions {
+
+	private static final String SPEC =
+			"# intro of the menu\n" +
+			"animation fadeIn type=test duration=100 easing=quadOut\n" +
+			"animation pulse type=test duration=50 delay=20 loops=1\n" +
+			"\n" +
+			"sequence intro fadeIn pulse\n" +
+			"group both fadeIn pulse\n";
+
+	private static AnimationDefinitions createDefinitions() throws IOException {
+		AnimationDefinitions definitions = new AnimationDefinitions();
+		definitions.registerType("test", new AnimationFactory() {
+			@Override
+			public BaseAnimation create(Object pTarget) {
+				return new TestAnimation(0, null).setTarget(pTarget);
+			}
+		});
+		assertEquals(4, definitions.load(new StringReader(SPEC)));
+		return definitions;
+	}
+
+	@Test
+	public void testCompiledDefinition() throws IOException {
+		AnimationDefinitions definitions = createDefinitions();
+		AnimationDefinition fadeIn = definitions.get("fadeIn");
+		assertEquals(100, fadeIn.getDurationMillis());
+		assertEquals(Easings.QUAD_OUT, fadeIn.getEasing());
+
+		Object widget = new Object();
+		BaseAnimation animation = fadeIn.create(widget);
+		assertEquals(100, animation.getDurationMillis());
+		assertEquals(Easings.QUAD_OUT, animation.getEasing());
+		assertEquals(widget, animation.getTarget());
+
+		AnimationDefinition intro = definitions.get("intro");
+		assertEquals(AnimationDefinition.KIND_SEQUENCE, intro.getKind());
+		assertEquals(2, intro.getChildCount());
+		assertEquals(definitions.get("pulse"), intro.getChild(1));
+	}
+
+	@Test
+	public void testUndeclaredValuesKeepDefaults() throws IOException {
+		AnimationDefinitions definitions = new AnimationDefinitions();
+		definitions.registerType("eased", new AnimationFactory() {
+			@Override
+			public BaseAnimation create(Object pTarget) {
+				return new TestAnimation(0, null)
+						.setEasing(Easings.SINE_IN_OUT)
+						.setLoopLength(3)
+						.setPlaybackRate(2.0f);
+			}
+		});
+		definitions.load(new StringReader(
+				"animation plain type=eased duration=100\n" +
+				"animation linear type=eased duration=100 easing=linear loops=0 rate=1\n"));
+
+		BaseAnimation plain = definitions.get("plain").create(null);
+		assertEquals(Easings.SINE_IN_OUT, plain.getEasing());
+		assertEquals(3, plain.getRemainingLoopCount());
+		assertEquals(2.0f, plain.getPlaybackRate(), 0.0f);
+
+		BaseAnimation linear = definitions.get("linear").create(null);
+		assertEquals(Easings.LINEAR, linear.getEasing());
+		assertEquals(0, linear.getRemainingLoopCount());
+		assertEquals(1.0f, linear.getPlaybackRate(), 0.0f);
+	}
+
+	@Test
+	public void testUndeclaredDurationKeepsTheStaggerDuration() throws IOException {
+		AnimationDefinitions definitions = new AnimationDefinitions();
+		definitions.registerType("cascade", new AnimationFactory() {
+			@Override
+			public BaseAnimation create(Object pTarget) {
+				// 5 items of 100 ms, each 20 ms after the previous
+				return new StaggerAnimation(5, 100, 20, StaggerOffsets.LINEAR) {
+					@Override
+					protected void onItemProgress(int pIndex, float pProgress) { }
+				};
+			}
+		});
+		definitions.load(new StringReader(
+				"animation cascade type=cascade easing=quadOut\n" +
+				"animation slowCascade type=cascade duration=360\n"));
+
+		assertEquals(-1, definitions.get("cascade").getDurationMillis());
+		assertEquals(180, definitions.get("cascade").create(null).getDurationMillis());
+		assertEquals(360, definitions.get("slowCascade").create(null).getDurationMillis());
+	}
+
+	@Test
+	public void testPlaySequence() throws IOException {
+		AnimationDefinitions definitions = createDefinitions();
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final int[] finished = new int[1];
+		definitions.play(controller, "intro", new Object(), new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				finished[0]++;
+			}
+		});
+		assertEquals(1, controller.getAnimationCount());
+		controller.advance(100, 10);
+		assertEquals(1, controller.getAnimationCount());
+		// 20 delay and two runs of 50
+		controller.advance(100, 10);
+		assertEquals(0, finished[0]);
+		controller.advance(60, 10);
+		assertEquals(1, finished[0]);
+		assertEquals(0, controller.getAnimationCount());
+	}
+
+	@Test
+	public void testPlayGroup() throws IOException {
+		AnimationDefinitions definitions = createDefinitions();
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+		definitions.play(controller, "both", widget);
+		assertEquals(2, controller.getAnimationCountByTarget(widget));
+	}
+
+	@Test
+	public void testInvalidSpec() {
+		AnimationDefinitions definitions = new AnimationDefinitions();
+		try {
+			definitions.load(new StringReader("sequence intro fadeIn\n"));
+			fail();
+		} catch (IOException e) {
+			assertEquals("Line 1: Unknown definition 'fadeIn'.", e.getMessage());
+		}
+		try {
+			definitions.load(new StringReader("\nanimation a type=none duration=1\n"));
+			fail();
+		} catch (IOException e) {
+			assertEquals("Line 2: Unknown animation type 'none'.", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimationLoops;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the fixed time step mode of the controller.
+ */
+public class TestFixedTimeStep {
+
+	@Test
+	public void testStepsAfterStall() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock).setFixedTimeStep(10, 100);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		TestAnimationLoops animation = new TestAnimationLoops(100, progressValues, new ArrayList<Integer>(), null);
+		controller.add(animation);
+
+		clock.advance(55);
+		controller.update();
+
+		// start progress and one progress per step
+		assertEquals(6, progressValues.size());
+		for (int i = 1; i < progressValues.size(); i++) {
+			assertEquals(i * 0.1f, progressValues.get(i), 0.0001f);
+		}
+		assertEquals(0.5f, controller.getInterpolationAlpha(), 0.0001f);
+	}
+
+	@Test
+	public void testCatchUpIsLimited() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock).setFixedTimeStep(10, 3);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		TestAnimationLoops animation = new TestAnimationLoops(1000, progressValues, new ArrayList<Integer>(), null);
+		controller.add(animation);
+
+		clock.advance(5000);
+		controller.update();
+		assertEquals(4, progressValues.size());
+		assertEquals(0.03f, progressValues.get(3), 0.0001f);
+
+		clock.advance(10);
+		controller.update();
+		assertEquals(0.04f, progressValues.get(4), 0.0001f);
+	}
+
+	@Test
+	public void testSwitchModeKeepsProgress() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		TestAnimationLoops animation = new TestAnimationLoops(1000, progressValues, new ArrayList<Integer>(), null);
+		controller.add(animation);
+		controller.advance(200, 10);
+
+		controller.setFixedTimeStep(10, 5);
+		assertEquals(0.2f, animation.update(), 0.0001f);
+
+		clock.advance(1000);
+		controller.update();
+		assertEquals(0.25f, animation.update(), 0.0001f);
+
+		controller.setFixedTimeStep(0, 0);
+		assertEquals(false, controller.isFixedTimeStep());
+		assertEquals(0.25f, animation.update(), 0.0001f);
+	}
+
+	@Test
+	public void testDelayedStartUsesSteps() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock).setFixedTimeStep(10, 10);
+
+		TestAnimationLoops animation = new TestAnimationLoops(100, new ArrayList<Float>(), new ArrayList<Integer>(), null);
+		controller.add(30, animation);
+
+		clock.advance(29);
+		controller.update();
+		assertEquals(false, animation.hasStarted());
+		clock.advance(1);
+		controller.update();
+		assertEquals(true, animation.hasStarted());
+	}
+}
@@ -0,0 +1,83 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.Easing;
+import com.nukethemoon.tools.ani.Easings;
+import com.nukethemoon.tools.ani.FloatBufferTween;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the bulk interpolation of float arrays and buffers.
+ */
+public class TestFloatBufferTween {
+
+	@Test
+	public void testArraysIntoDirectBuffer() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		FloatBuffer destination = ByteBuffer.allocateDirect(4 * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		FloatBufferTween tween = new FloatBufferTween(
+				new float[] {0, 10, 20}, new float[] {10, 20, 40}, destination, 100);
+		controller.add(tween);
+
+		clock.advance(50);
+		controller.update();
+		assertEquals(5.0f, destination.get(0), 0.0001f);
+		assertEquals(15.0f, destination.get(1), 0.0001f);
+		assertEquals(30.0f, destination.get(2), 0.0001f);
+		assertEquals("The tween must not write behind its values.", 0.0f, destination.get(3), 0.0f);
+		assertEquals("The tween must not move the buffer position.", 0, destination.position());
+
+		controller.runUntilIdle(10, 1000);
+		assertEquals(40.0f, destination.get(2), 0.0f);
+	}
+
+	@Test
+	public void testBuffersWithOffsets() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		FloatBuffer from = FloatBuffer.wrap(new float[] {-1, 0, 0});
+		from.position(1);
+		FloatBuffer to = FloatBuffer.wrap(new float[] {1, 1});
+		FloatBuffer destination = FloatBuffer.allocate(4);
+		destination.position(2);
+		controller.add(new FloatBufferTween(from, to, destination, 100));
+
+		clock.advance(25);
+		controller.update();
+		assertEquals(0.0f, destination.get(0), 0.0f);
+		assertEquals(0.25f, destination.get(2), 0.0001f);
+		assertEquals(0.25f, destination.get(3), 0.0001f);
+	}
+
+	@Test
+	public void testEasings() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		float[] destination = new float[2];
+		FloatBufferTween tween = new FloatBufferTween(new float[] {0, 0}, new float[] {1, 1}, destination, 100);
+		tween.setEasing(Easings.QUAD_IN);
+		tween.setElementEasings(new Easing[] {null, Easings.QUAD_IN});
+		controller.add(tween);
+
+		clock.advance(50);
+		controller.update();
+		assertEquals(0.25f, destination[0], 0.0001f);
+		assertEquals(0.0625f, destination[1], 0.0001f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDestinationTooSmall() {
+		new FloatBufferTween(new float[] {0, 0}, new float[] {1, 1}, new float[1], 100);
+	}
+}
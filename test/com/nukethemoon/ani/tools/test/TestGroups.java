@@ -0,0 +1,96 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests addressing groups of animations by target and tag.
+ */
+public class TestGroups {
+
+	@Test
+	public void testCancelByTarget() {
+		Ani controller = new Ani(new ManualClock());
+		Object widget = new Object();
+		Object otherWidget = new Object();
+
+		TestAnimation fade = new TestAnimation(100, null);
+		fade.setTarget(widget);
+		TestAnimation move = new TestAnimation(100, null);
+		move.setTarget(widget);
+		TestAnimation other = new TestAnimation(100, null);
+		other.setTarget(otherWidget);
+		controller.add(fade).add(move).add(other);
+
+		assertEquals(2, controller.getAnimationCountByTarget(widget));
+		assertEquals(2, controller.cancelByTarget(widget));
+		assertEquals(0, controller.getAnimationCountByTarget(widget));
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals(0, controller.cancelByTarget(widget));
+		assertEquals(false, controller.cancel(fade));
+	}
+
+	@Test
+	public void testStopAndPauseByTag() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final List<BaseAnimation> finished = new ArrayList<BaseAnimation>();
+		AnimationFinishedListener listener = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				finished.add(pAnimation);
+			}
+		};
+
+		TestAnimation first = new TestAnimation(100, listener);
+		first.addTag("screenA").addTag("intro");
+		TestAnimation second = new TestAnimation(100, listener);
+		second.addTag("screenA");
+		TestAnimation third = new TestAnimation(100, listener);
+		third.addTag("screenB");
+		controller.add(first).add(second).add(third);
+
+		controller.pauseByTag("intro");
+		assertEquals(true, first.isPaused());
+		assertEquals(false, second.isPaused());
+		controller.resumeByTag("intro");
+		assertEquals(false, first.isPaused());
+
+		controller.stopByTag("screenA");
+		assertEquals(2, finished.size());
+		assertEquals(0, controller.getAnimationCountByTag("screenA"));
+		assertEquals(0, controller.getAnimationCountByTag("intro"));
+		assertEquals(1, controller.getAnimationCount());
+	}
+
+	@Test
+	public void testIndexFollowsFinishedAnimations() {
+		Ani controller = new Ani(new ManualClock());
+		TestAnimation animation = new TestAnimation(50, null);
+		animation.addTag("short");
+		controller.add(animation);
+		controller.runUntilIdle(10, 1000);
+
+		assertEquals(0, controller.getAnimationCountByTag("short"));
+
+		controller.add(animation);
+		assertEquals(1, controller.getAnimationCountByTag("short"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTagsAreFixedAfterAdd() {
+		Ani controller = new Ani(new ManualClock());
+		TestAnimation animation = new TestAnimation(50, null);
+		controller.add(animation);
+		animation.addTag("late");
+	}
+}
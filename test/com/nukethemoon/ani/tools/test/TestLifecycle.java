@@ -19,6 +19,29 @@ import static org.junit.Assert.*;
  */
 public class TestLifecycle {
 
+	@Test
+	public void testSelfUpdatingControllerUsesDaemonThread() throws InterruptedException {
+		Ani controller = new Ani(5);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final Thread[] updateThread = new Thread[1];
+		controller.add(new BaseAnimation(20, new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				latch.countDown();
+			}
+		}) {
+			@Override
+			protected void onProgress(float pProgress) {
+				updateThread[0] = Thread.currentThread();
+			}
+		});
+
+		latch.await(500, TimeUnit.MILLISECONDS);
+		assertEquals("Animation did not finish in the expected time.", 0, latch.getCount());
+		// the update thread must not keep the application alive
+		assertEquals(true, updateThread[0].isDaemon());
+	}
+
 	@Test
 	public void testLifecycle() throws InterruptedException {
 		Ani controller = new Ani(10);
@@ -0,0 +1,116 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.ani.tools.test.animation.TestAnimationLoops;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests animations that are driven by a virtual clock.
+ */
+public class TestManualClock {
+
+	@Test
+	public void testAnimationDuration() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		final List<Long> finishTimes = new ArrayList<Long>();
+		final ManualClock finalClock = clock;
+		TestAnimation animation = new TestAnimation(100, new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				finishTimes.add(finalClock.getTimeMillis());
+			}
+		});
+		controller.add(animation);
+
+		controller.advance(100, 1);
+		assertEquals("Animation finished too early.", false, animation.isFinished());
+
+		assertEquals("Animation did not finish.", true, controller.runUntilIdle(1, 1000));
+		assertEquals("The finished listener was not called once.", 1, finishTimes.size());
+		assertEquals("The animation did not finish right after its duration.",
+				true, finishTimes.get(0) <= 103);
+	}
+
+	@Test
+	public void testDelayedStart() {
+		ManualClock clock = new ManualClock(5000);
+		Ani controller = new Ani(clock);
+
+		TestAnimation animation = new TestAnimation(50, null);
+		controller.add(200, animation);
+
+		controller.advance(199, 1);
+		assertEquals("Delayed animation started too early.", false, animation.hasStarted());
+
+		controller.advance(1, 1);
+		assertEquals("Delayed animation did not start.", true, animation.hasStarted());
+	}
+
+	@Test
+	public void testLoops() {
+		Ani controller = new Ani(new ManualClock());
+		int loopCountToTest = 3;
+
+		List<Float> progressValues = new ArrayList<Float>();
+		List<Integer> loopIndexList = new ArrayList<Integer>();
+		TestAnimationLoops animation = new TestAnimationLoops(50, progressValues, loopIndexList, null);
+		animation.setLoopLength(loopCountToTest);
+		controller.add(animation);
+
+		assertEquals("Animation did not finish.", true, controller.runUntilIdle(2, 10000));
+		assertEquals("Expected to call onLoopStart " + loopCountToTest + " times.",
+				loopCountToTest, loopIndexList.size());
+		assertEquals(true, Collections.frequency(progressValues, 1.0f) >= loopCountToTest + 1);
+		for (int i = 0; i < loopIndexList.size(); i++) {
+			assertEquals("The call of onLoopStart is not valid.", i + 1, (int) loopIndexList.get(i));
+		}
+	}
+
+	@Test
+	public void testPauseAndResume() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		TestAnimation animation = new TestAnimation(1000, null);
+		controller.add(animation);
+
+		controller.advance(200, 10);
+		assertEquals(0.2f, animation.update(), 0.0001f);
+
+		animation.pause();
+		controller.advance(500, 10);
+		assertEquals(0.2f, animation.update(), 0.0001f);
+
+		animation.resume();
+		controller.advance(300, 10);
+		assertEquals(0.5f, animation.update(), 0.0001f);
+	}
+
+	@Test
+	public void testInfiniteLoopIsNeverIdle() {
+		Ani controller = new Ani(new ManualClock());
+		TestAnimation animation = new TestAnimation(10, null);
+		animation.loopInfinite();
+		controller.add(animation);
+
+		assertEquals("An infinite loop must not get idle.", false, controller.runUntilIdle(16, 60 * 60 * 1000));
+		assertEquals(false, animation.isFinished());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAdvanceNeedsManualClock() {
+		new Ani().advance(100, 10);
+	}
+}
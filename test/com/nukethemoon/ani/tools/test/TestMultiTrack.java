@@ -0,0 +1,176 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.Easing;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.MultiTrackAnimation;
+import com.nukethemoon.tools.ani.TrackListener;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests animations with tracks.
+ */
+public class TestMultiTrack {
+
+	private static class RecordingListener implements TrackListener {
+
+		private final List<String> calls = new ArrayList<String>();
+
+		@Override
+		public void onTrackProgress(int pTrack, float pProgress) {
+			calls.add(pTrack + ":" + pProgress);
+		}
+	}
+
+	@Test
+	public void testOnlyActiveTracksAreCalled() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		MultiTrackAnimation animation = new MultiTrackAnimation(100);
+		animation.addTrack(0.5f, 1.0f, listener);
+		animation.addTrack(0.0f, 0.5f, listener);
+		animation.addTrack(0.25f, 0.3f, listener);
+		controller.add(animation);
+		assertEquals("[1:0.0]", listener.calls.toString());
+
+		listener.calls.clear();
+		clock.advance(20);
+		controller.update();
+		assertEquals("[1:0.4]", listener.calls.toString());
+		assertEquals(1, animation.getActiveTrackCount());
+
+		// jumps over track 2
+		listener.calls.clear();
+		clock.advance(55);
+		controller.update();
+		assertEquals("[1:1.0, 2:0.0, 2:1.0, 0:0.0, 0:0.5]", listener.calls.toString());
+		assertEquals(1, animation.getActiveTrackCount());
+
+		listener.calls.clear();
+		clock.advance(100);
+		controller.update();
+		assertEquals("[0:1.0]", listener.calls.toString());
+		assertEquals(0, animation.getActiveTrackCount());
+	}
+
+	@Test
+	public void testLoopStartsTracksAgain() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		MultiTrackAnimation animation = new MultiTrackAnimation(100);
+		animation.addTrack(0.0f, 1.0f, listener);
+		animation.setLoopLength(1);
+		controller.add(animation);
+		clock.advance(150);
+		controller.update();
+		assertEquals("[0:0.0, 0:1.0, 0:0.0, 0:0.5]", listener.calls.toString());
+	}
+
+	@Test
+	public void testReversePlayback() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		MultiTrackAnimation animation = new MultiTrackAnimation(100);
+		animation.addTrack(0.5f, 1.0f, listener);
+		animation.addTrack(0.0f, 0.5f, listener);
+		animation.addTrack(0.25f, 0.3f, listener);
+		animation.setPlaybackRate(-1.0f);
+		controller.add(animation);
+		assertEquals("[0:1.0]", listener.calls.toString());
+
+		listener.calls.clear();
+		clock.advance(20);
+		controller.update();
+		assertEquals("[0:0.6]", listener.calls.toString());
+
+		// leaves track 0 with 0.0 and jumps over track 2
+		listener.calls.clear();
+		clock.advance(55);
+		controller.update();
+		assertEquals("[0:0.0, 1:1.0, 1:0.5, 2:1.0, 2:0.0]", listener.calls.toString());
+		assertEquals(1, animation.getActiveTrackCount());
+
+		listener.calls.clear();
+		clock.advance(100);
+		controller.update();
+		assertEquals("[1:0.0]", listener.calls.toString());
+		assertEquals(0, animation.getActiveTrackCount());
+	}
+
+	@Test
+	public void testBackwardMovesOnlyCallPassedTracks() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingListener listener = new RecordingListener();
+		MultiTrackAnimation animation = new MultiTrackAnimation(1000);
+		for (int i = 0; i < 100; i++) {
+			animation.addTrack(i / 100.0f, (i + 1) / 100.0f, listener);
+		}
+		controller.add(animation);
+		clock.advance(555);
+		controller.update();
+
+		// moves back over tracks 54 and 53 into track 52
+		listener.calls.clear();
+		animation.seek(0.525f);
+		assertEquals("[55:0.0, 54:1.0, 54:0.0, 53:1.0, 53:0.0, 52:1.0, 52:0.5]", listener.calls.toString());
+		assertEquals(1, animation.getActiveTrackCount());
+
+		listener.calls.clear();
+		animation.setPlaybackRate(-1.0f);
+		clock.advance(3);
+		controller.update();
+		assertEquals(1, listener.calls.size());
+		assertEquals(true, listener.calls.get(0).startsWith("52:"));
+		assertEquals(0.2f, Float.parseFloat(listener.calls.get(0).substring(3)), 0.01f);
+	}
+
+	@Test
+	public void testOvershootingEasing() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final float[] lastProgress = new float[100];
+		final int[] calls = new int[1];
+		TrackListener listener = new TrackListener() {
+			@Override
+			public void onTrackProgress(int pTrack, float pProgress) {
+				lastProgress[pTrack] = pProgress;
+				calls[0]++;
+			}
+		};
+		MultiTrackAnimation animation = new MultiTrackAnimation(1000);
+		for (int i = 0; i < 100; i++) {
+			animation.addTrack(i / 100.0f, (i + 1) / 100.0f, listener);
+		}
+		// moves above 1.0 and back (back out)
+		animation.setEasing(new Easing() {
+			@Override
+			public float apply(float pProgress) {
+				float t = pProgress - 1.0f;
+				return 1.0f + 2.70158f * t * t * t + 1.70158f * t * t;
+			}
+		});
+		controller.add(animation);
+		controller.runUntilIdle(10, 2000);
+
+		assertEquals(true, animation.isFinished());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(1.0f, lastProgress[i], 0.0f);
+		}
+		// the tracks are not started again for every backward move
+		assertEquals(true, calls[0] < 400);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidTrack() {
+		new MultiTrackAnimation(100).addTrack(0.6f, 0.5f, new RecordingListener());
+	}
+}
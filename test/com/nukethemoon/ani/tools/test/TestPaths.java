@@ -0,0 +1,71 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.AnimationPath;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.BezierPath;
+import com.nukethemoon.tools.ani.CatmullRomPath;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.PathAnimation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests animations along paths.
+ */
+public class TestPaths {
+
+	@Test
+	public void testStraightBezierHasConstantSpeed() {
+		// a straight line with control points that would cause uneven speed
+		AnimationPath path = new BezierPath(new float[] {0, 0, 90, 0, 99, 0, 100, 0}, 64);
+		assertEquals(100.0f, path.getLength(), 0.01f);
+
+		float[] point = new float[2];
+		int cursor = -1;
+		for (int i = 0; i <= 10; i++) {
+			cursor = path.getPoint(i / 10.0f, point, cursor);
+			assertEquals(i * 10.0f, point[0], 0.5f);
+			assertEquals(0.0f, point[1], 0.0f);
+		}
+	}
+
+	@Test
+	public void testCatmullRomPassesPoints() {
+		AnimationPath path = new CatmullRomPath(0, 0, 100, 0, 100, 100);
+		assertEquals(200.0f, path.getLength(), 10.0f);
+
+		float[] point = new float[2];
+		path.getPoint(0.0f, point);
+		assertEquals(0.0f, point[0], 0.0001f);
+		path.getPoint(1.0f, point);
+		assertEquals(100.0f, point[0], 0.0001f);
+		assertEquals(100.0f, point[1], 0.0001f);
+	}
+
+	@Test
+	public void testPathAnimation() {
+		Ani controller = new Ani(new ManualClock());
+		AnimationPath path = new BezierPath(0, 0, 0, 10, 10, 10, 10, 0);
+		final List<float[]> positions = new ArrayList<float[]>();
+		controller.add(new PathAnimation(path, 100) {
+			@Override
+			protected void onPosition(float pX, float pY) {
+				positions.add(new float[] {pX, pY});
+			}
+		});
+		controller.runUntilIdle(10, 1000);
+
+		float[] last = positions.get(positions.size() - 1);
+		assertEquals(10.0f, last[0], 0.0001f);
+		assertEquals(0.0f, last[1], 0.0001f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBezierPoints() {
+		new BezierPath(0, 0, 1, 1, 2, 2);
+	}
+}
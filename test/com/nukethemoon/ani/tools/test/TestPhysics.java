@@ -0,0 +1,85 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.DecayAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.SpringAnimation;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the physics based animations.
+ */
+public class TestPhysics {
+
+	private static class TestSpring extends SpringAnimation {
+
+		private float lastValue;
+
+		TestSpring(float pFrom, float pTo) {
+			super(pFrom, pTo);
+		}
+
+		@Override
+		protected void onValue(float pValue) {
+			lastValue = pValue;
+		}
+	}
+
+	@Test
+	public void testSpringSettles() {
+		Ani controller = new Ani(new ManualClock());
+		TestSpring spring = new TestSpring(0.0f, 100.0f);
+		controller.add(spring);
+
+		assertEquals("The spring did not settle.", true, controller.runUntilIdle(16, 10000));
+		assertEquals(true, spring.isFinished());
+		assertEquals(100.0f, spring.lastValue, 0.0f);
+	}
+
+	@Test
+	public void testSpringIsIndependentOfUpdateInterval() {
+		Ani fastController = new Ani(new ManualClock());
+		TestSpring fastSpring = new TestSpring(0.0f, 1.0f);
+		fastController.add(fastSpring);
+		fastController.advance(300, 1);
+
+		Ani slowController = new Ani(new ManualClock());
+		TestSpring slowSpring = new TestSpring(0.0f, 1.0f);
+		slowController.add(slowSpring);
+		slowController.advance(300, 100);
+
+		assertEquals(fastSpring.getValue(), slowSpring.getValue(), 0.0001f);
+		assertEquals(fastSpring.getVelocity(), slowSpring.getVelocity(), 0.0001f);
+	}
+
+	@Test
+	public void testSpringRetargetKeepsVelocity() {
+		Ani controller = new Ani(new ManualClock());
+		TestSpring spring = new TestSpring(0.0f, 100.0f);
+		controller.add(spring);
+		controller.advance(50, 16);
+
+		float velocity = spring.getVelocity();
+		spring.setTargetValue(-100.0f);
+		assertEquals(velocity, spring.getVelocity(), 0.0f);
+
+		controller.runUntilIdle(16, 10000);
+		assertEquals(-100.0f, spring.getValue(), 0.0f);
+	}
+
+	@Test
+	public void testDecayStops() {
+		Ani controller = new Ani(new ManualClock());
+		DecayAnimation fling = new DecayAnimation(0.0f, 1000.0f, 4.0f) {
+			@Override
+			protected void onValue(float pValue) { }
+		};
+		controller.add(fling);
+
+		assertEquals(true, controller.runUntilIdle(16, 10000));
+		// the distance of an exponential decay is velocity / friction
+		assertEquals(250.0f, fling.getValue(), 3.0f);
+	}
+}
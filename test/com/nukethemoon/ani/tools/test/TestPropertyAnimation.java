@@ -0,0 +1,120 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.PropertyAnimation;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests animations of properties set by name.
+ */
+public class TestPropertyAnimation {
+
+	public static class Widget {
+
+		private float alpha;
+		private int width;
+		public double x;
+
+		public void setAlpha(float pAlpha) {
+			alpha = pAlpha;
+		}
+
+		public Widget setWidth(int pWidth) {
+			width = pWidth;
+			return this;
+		}
+	}
+
+	/**
+	 * A class that is not public with a setter that can fail.
+	 */
+	static class HiddenWidget {
+
+		private float alpha;
+
+		public void setAlpha(float pAlpha) {
+			if (pAlpha < 0) {
+				throw new IllegalStateException("negative alpha");
+			}
+			alpha = pAlpha;
+		}
+	}
+
+	@Test
+	public void testSetterAndField() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		Widget widget = new Widget();
+		controller.add(PropertyAnimation.of(widget, "alpha", 0.0f, 1.0f, 100));
+		controller.add(PropertyAnimation.of(widget, "width", 10, 20, 100));
+		controller.add(PropertyAnimation.of(widget, "x", 0.0, -50.0, 100));
+		assertEquals(3, controller.getAnimationCountByTarget(widget));
+
+		controller.advance(50, 10);
+		assertEquals(0.5f, widget.alpha, 0.0001f);
+		assertEquals(15, widget.width);
+		assertEquals(-25.0, widget.x, 0.0001);
+
+		controller.advance(60, 10);
+		assertEquals(1.0f, widget.alpha, 0.0f);
+		assertEquals(20, widget.width);
+	}
+
+	@Test
+	public void testConflictKey() {
+		Ani controller = new Ani(new ManualClock());
+		Widget widget = new Widget();
+		PropertyAnimation fadeIn = PropertyAnimation.of(widget, "alpha", 0.0f, 1.0f, 100);
+		PropertyAnimation fadeOut = PropertyAnimation.of(widget, "alpha", 1.0f, 0.0f, 100);
+		controller.add(fadeIn).add(fadeOut);
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals("alpha", fadeOut.getProperty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownProperty() {
+		PropertyAnimation.of(new Widget(), "height", 0.0f, 1.0f, 100);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongType() {
+		PropertyAnimation.of(new Widget(), "alpha", 0, 1, 100);
+	}
+
+	@Test
+	public void testClassThatIsNotPublic() {
+		Ani controller = new Ani(new ManualClock());
+		HiddenWidget widget = new HiddenWidget();
+		controller.add(PropertyAnimation.of(widget, "alpha", 0.0f, 1.0f, 100));
+		controller.advance(50, 10);
+		assertEquals(0.5f, widget.alpha, 0.0001f);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSetterExceptionIsThrown() {
+		Ani controller = new Ani(new ManualClock());
+		controller.add(PropertyAnimation.of(new HiddenWidget(), "alpha", 1.0f, -1.0f, 100));
+		controller.advance(100, 10);
+	}
+
+	@Test
+	public void testSetterIsResolvedOncePerClassAndProperty() throws Exception {
+		PropertyAnimation first = PropertyAnimation.of(new Widget(), "alpha", 0.0f, 1.0f, 100);
+		PropertyAnimation second = PropertyAnimation.of(new Widget(), "alpha", 1.0f, 0.0f, 50);
+		PropertyAnimation width = PropertyAnimation.of(new Widget(), "width", 0, 1, 100);
+		assertSame(getSetter(first), getSetter(second));
+		assertNotSame(getSetter(first), getSetter(width));
+		assertSame(getSetter(width), getSetter(PropertyAnimation.of(new Widget(), "width", 5, 10, 100)));
+	}
+
+	private static Object getSetter(PropertyAnimation pAnimation) throws Exception {
+		Field field = pAnimation.getClass().getDeclaredField("setter");
+		field.setAccessible(true);
+		return field.get(pAnimation);
+	}
+}
@@ -0,0 +1,127 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.Easings;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.ValueAnimation;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests retargeting running value animations.
+ */
+public class TestRetarget {
+
+	private static class RecordingValueAnimation extends ValueAnimation {
+
+		private float lastValue;
+
+		RecordingValueAnimation(float pFrom, float pTo, int pDurationMillis) {
+			super(pFrom, pTo, pDurationMillis);
+		}
+
+		@Override
+		protected void onValue(float pValue) {
+			lastValue = pValue;
+		}
+	}
+
+	@Test
+	public void testVelocityStaysContinuous() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingValueAnimation animation = new RecordingValueAnimation(0, 100, 100);
+		controller.add(animation);
+		controller.advance(50, 10);
+		assertEquals(50.0f, animation.lastValue, 0.001f);
+		assertEquals(1.0f, animation.getVelocity(), 0.001f);
+
+		animation.retarget(200, 100);
+		assertEquals(1, controller.getAnimationCount());
+		controller.advance(1, 1);
+		// continues with the velocity of before
+		assertEquals(51.0f, animation.lastValue, 0.05f);
+		assertEquals(1.0f, animation.getVelocity(), 0.05f);
+
+		controller.advance(100, 11);
+		assertEquals(200.0f, animation.lastValue, 0.0f);
+		assertEquals(true, animation.isFinished());
+	}
+
+	@Test
+	public void testRetargetKeepsRemainingTime() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingValueAnimation animation = new RecordingValueAnimation(0, 100, 200);
+		controller.add(animation);
+		controller.advance(50, 10);
+		animation.retarget(-100);
+		assertEquals(150, animation.getDurationMillis());
+		assertEquals(-100.0f, animation.getTo(), 0.0f);
+		controller.advance(149, 10);
+		assertEquals(false, animation.isFinished());
+		controller.advance(10, 10);
+		assertEquals(-100.0f, animation.lastValue, 0.0f);
+	}
+
+	@Test
+	public void testRetargetBeforeStart() {
+		RecordingValueAnimation animation = new RecordingValueAnimation(0, 100, 200);
+		animation.retarget(50, 300);
+		assertEquals(300, animation.getDurationMillis());
+		Ani controller = new Ani(new ManualClock());
+		controller.add(animation);
+		controller.advance(150, 10);
+		assertEquals(25.0f, animation.lastValue, 0.001f);
+	}
+
+	@Test
+	public void testSettingsAreRestoredAfterTheRun() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingValueAnimation animation = new RecordingValueAnimation(0, 100, 200);
+		animation.setEasing(Easings.CUBIC_IN_OUT);
+		animation.setLoopLength(2);
+		animation.setPlaybackRate(2.0f);
+		controller.add(animation);
+		controller.advance(50, 10);
+
+		animation.retarget(300, 100);
+		assertEquals(null, animation.getEasing());
+		assertEquals(0, animation.getRemainingLoopCount());
+		animation.retarget(400, 100);
+		controller.advance(60, 10);
+		assertEquals(400.0f, animation.lastValue, 0.0f);
+		assertEquals(true, animation.isFinished());
+
+		assertEquals(Easings.CUBIC_IN_OUT, animation.getEasing());
+		assertEquals(2, animation.getRemainingLoopCount());
+		assertEquals(2.0f, animation.getPlaybackRate(), 0.0f);
+		assertEquals(200, animation.getDurationMillis());
+
+		// a next run uses the restored settings
+		controller.runUntilIdle(10, 1000);
+		controller.add(animation);
+		controller.advance(50, 10);
+		assertEquals(false, animation.isFinished());
+		assertEquals(400.0f, animation.getTo(), 0.0f);
+	}
+
+	@Test
+	public void testSettingsAreRestoredAfterCancel() {
+		Ani controller = new Ani(new ManualClock());
+		RecordingValueAnimation animation = new RecordingValueAnimation(0, 100, 200);
+		animation.setEasing(Easings.CUBIC_IN_OUT);
+		animation.setPlaybackRate(-1.0f);
+		controller.add(animation);
+		controller.advance(50, 10);
+		animation.retarget(300);
+		assertEquals(1.0f, animation.getPlaybackRate(), 0.0f);
+
+		controller.cancel(animation);
+		assertEquals(Easings.CUBIC_IN_OUT, animation.getEasing());
+		assertEquals(-1.0f, animation.getPlaybackRate(), 0.0f);
+		assertEquals(200, animation.getDurationMillis());
+	}
+}
@@ -0,0 +1,247 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.ani.tools.test.animation.TestAnimationLoops;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests seeking, reverse playback and the loop accounting of animations.
+ */
+public class TestSeekAndReverse {
+
+	@Test
+	public void testLoopBoundariesAfterFrameGap() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		List<Integer> loopIndexList = new ArrayList<Integer>();
+		TestAnimationLoops animation = new TestAnimationLoops(10, progressValues, loopIndexList, null);
+		animation.setLoopLength(5);
+		controller.add(animation);
+
+		clock.advance(35);
+		controller.update();
+
+		assertEquals("Expected one onLoopStart call per passed loop.", 3, loopIndexList.size());
+		for (int i = 0; i < loopIndexList.size(); i++) {
+			assertEquals(i + 1, (int) loopIndexList.get(i));
+		}
+		assertEquals(3, animation.getLoopIndex());
+		assertEquals(0.5f, progressValues.get(progressValues.size() - 1), 0.0001f);
+	}
+
+	@Test
+	public void testLoopsDoNotDrift() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		TestAnimation animation = new TestAnimation(30, null);
+		animation.setLoopLength(2);
+		controller.add(animation);
+
+		controller.advance(90, 7);
+		assertEquals(false, animation.isFinished());
+		controller.advance(1, 1);
+		assertEquals("The animation did not finish after three loops.", true, animation.isFinished());
+	}
+
+	@Test
+	public void testSeekMillisInInfiniteLoop() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		List<Integer> loopIndexList = new ArrayList<Integer>();
+		TestAnimationLoops animation = new TestAnimationLoops(1000, progressValues, loopIndexList, null);
+		animation.loopInfinite();
+		controller.add(animation);
+
+		animation.seekMillis(30 * 60 * 1000 + 250);
+		assertEquals(1800, animation.getLoopIndex());
+		assertEquals("Seeking must not call onLoopStart.", 0, loopIndexList.size());
+		assertEquals(0.25f, progressValues.get(progressValues.size() - 1), 0.0001f);
+
+		clock.advance(250);
+		assertEquals(0.5f, animation.update(), 0.0001f);
+	}
+
+	@Test
+	public void testSeekFiniteAnimationToEnd() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		TestAnimation animation = new TestAnimation(100, null);
+		animation.setLoopLength(1);
+		controller.add(animation);
+
+		animation.seekMillis(10000);
+		assertEquals(1, animation.getLoopIndex());
+		animation.update();
+		assertEquals(true, animation.isFinished());
+	}
+
+	@Test
+	public void testSeekProgressWhilePaused() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		TestAnimation animation = new TestAnimation(100, null);
+		controller.add(animation);
+		animation.pause();
+
+		animation.seek(0.8f);
+		clock.advance(500);
+		assertEquals(0.8f, animation.update(), 0.0001f);
+
+		animation.resume();
+		clock.advance(10);
+		assertEquals(0.9f, animation.update(), 0.0001f);
+	}
+
+	@Test
+	public void testReversePlayback() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		TestAnimationLoops animation = new TestAnimationLoops(1000, progressValues,
+				new ArrayList<Integer>(), null);
+		animation.setPlaybackRate(-1.0f);
+		controller.add(animation);
+
+		assertEquals("A reverse animation must start with progress 1.0.", 1.0f, progressValues.get(0), 0.0f);
+
+		clock.advance(250);
+		assertEquals(0.75f, animation.update(), 0.0001f);
+
+		controller.runUntilIdle(10, 2000);
+		assertEquals(true, animation.isFinished());
+		assertEquals("A reverse animation must end with progress 0.0.",
+				0.0f, progressValues.get(progressValues.size() - 1), 0.0f);
+	}
+
+	@Test
+	public void testDirectionChangeKeepsProgress() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		TestAnimation animation = new TestAnimation(1000, null);
+		controller.add(animation);
+
+		clock.advance(300);
+		assertEquals(0.3f, animation.update(), 0.0001f);
+
+		animation.setPlaybackRate(-2.0f);
+		assertEquals(0.3f, animation.update(), 0.0001f);
+
+		clock.advance(100);
+		assertEquals(0.1f, animation.update(), 0.0001f);
+	}
+
+	@Test
+	public void testSeekBeforeStart() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		List<Float> progressValues = new ArrayList<Float>();
+		TestAnimationLoops animation = new TestAnimationLoops(100, progressValues,
+				new ArrayList<Integer>(), null);
+		animation.seek(0.4f);
+		controller.add(animation);
+		assertEquals("The start must keep the progress of the seek.", 0.4f, progressValues.get(0), 0.0001f);
+
+		clock.advance(30);
+		assertEquals(0.7f, animation.update(), 0.0001f);
+
+		// a seek before a delayed start
+		TestAnimation delayed = new TestAnimation(100, null);
+		delayed.setLoopLength(1);
+		delayed.seekMillis(150);
+		controller.add(50, delayed);
+		controller.advance(50, 10);
+		assertEquals(true, delayed.hasStarted());
+		assertEquals(1, delayed.getLoopIndex());
+		assertEquals(0.5f, delayed.update(), 0.0001f);
+	}
+
+	@Test
+	public void testProgressHooksCanBeOverridden() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		final List<Float> progressValues = new ArrayList<Float>();
+		// an animation that runs at half of the computed progress
+		BaseAnimation halfSpeed = new BaseAnimation(100) {
+			@Override
+			protected void onProgress(float pProgress) {
+				progressValues.add(pProgress);
+			}
+
+			@Override
+			protected float computeProgress() {
+				return super.computeProgress() * 0.5f;
+			}
+		};
+		controller.add(halfSpeed);
+		clock.advance(60);
+		controller.update();
+		assertEquals(0.3f, progressValues.get(progressValues.size() - 1), 0.0001f);
+
+		// the computed progress decides the end
+		controller.advance(100, 10);
+		assertEquals(false, halfSpeed.isFinished());
+		controller.advance(100, 10);
+		assertEquals(true, halfSpeed.isFinished());
+		assertEquals(1.0f, progressValues.get(progressValues.size() - 1), 0.0f);
+
+		// an override past the end starts the next loop
+		final List<Integer> loops = new ArrayList<Integer>();
+		BaseAnimation looping = new BaseAnimation(100) {
+			@Override
+			protected void onProgress(float pProgress) { }
+
+			@Override
+			protected void onLoopStart(int pLoopIndex) {
+				loops.add(pLoopIndex);
+			}
+
+			@Override
+			protected float computeProgress() {
+				return super.computeProgress() * 2.0f;
+			}
+		};
+		looping.setLoopLength(2);
+		controller.add(looping);
+		controller.advance(60, 10);
+		assertEquals(1, loops.size());
+		assertEquals(false, looping.isFinished());
+		controller.advance(120, 10);
+		assertEquals(2, loops.size());
+		assertEquals(true, looping.isFinished());
+
+		final int[] handleCalls = new int[1];
+		BaseAnimation counting = new BaseAnimation(100) {
+			@Override
+			protected void onProgress(float pProgress) { }
+
+			@Override
+			protected float handleProgress() {
+				handleCalls[0]++;
+				return super.handleProgress();
+			}
+		};
+		controller.add(counting);
+		clock.advance(10);
+		controller.update();
+		assertEquals(1, handleCalls[0]);
+	}
+}
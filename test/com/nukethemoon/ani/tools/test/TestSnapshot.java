@@ -0,0 +1,166 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationCodec;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests writing and reading snapshots of running animations.
+ */
+public class TestSnapshot {
+
+	private static final int TYPE_TEST_ANIMATION = 7;
+
+	/**
+	 * A codec that stores the duration and collects the restored animations.
+	 */
+	private static class TestCodec implements AnimationCodec {
+
+		private final List<BaseAnimation> restored = new ArrayList<BaseAnimation>();
+
+		@Override
+		public int getTypeId(BaseAnimation pAnimation) {
+			return pAnimation instanceof TestAnimation ? TYPE_TEST_ANIMATION : -1;
+		}
+
+		@Override
+		public void writePayload(BaseAnimation pAnimation, DataOutput pOutput) throws IOException {
+			pOutput.writeShort(42);
+		}
+
+		@Override
+		public BaseAnimation readPayload(int pTypeId, DataInput pInput) throws IOException {
+			assertEquals(TYPE_TEST_ANIMATION, pTypeId);
+			assertEquals(42, pInput.readShort());
+			BaseAnimation animation = new TestAnimation(1, null);
+			restored.add(animation);
+			return animation;
+		}
+	}
+
+	private static byte[] writeSnapshot(Ani pController, AnimationCodec pCodec) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		pController.writeSnapshot(new DataOutputStream(bytes), pCodec);
+		return bytes.toByteArray();
+	}
+
+	@Test
+	public void testRestoreMidFlight() throws IOException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+
+		TestAnimation running = new TestAnimation(1000, null);
+		running.setLoopLength(3);
+		TestAnimation paused = new TestAnimation(2000, null);
+		TestAnimation delayed = new TestAnimation(1000, null);
+		controller.add(running);
+		controller.add(paused);
+		controller.add(500, delayed);
+
+		controller.advance(1300, 10);
+		paused.pause();
+
+		TestCodec codec = new TestCodec();
+		byte[] snapshot = writeSnapshot(controller, codec);
+
+		ManualClock restoredClock = new ManualClock(123456);
+		Ani restoredController = new Ani(restoredClock);
+		int count = restoredController.readSnapshot(
+				new DataInputStream(new ByteArrayInputStream(snapshot)), codec);
+
+		assertEquals(3, count);
+		assertEquals(3, restoredController.getAnimationCount());
+
+		BaseAnimation restoredRunning = codec.restored.get(0);
+		assertEquals(true, restoredRunning.hasStarted());
+		assertEquals(1, restoredRunning.getLoopIndex());
+		assertEquals(2, restoredRunning.getRemainingLoopCount());
+
+		BaseAnimation restoredPaused = codec.restored.get(1);
+		assertEquals(true, restoredPaused.isPaused());
+
+		restoredClock.advance(100);
+		assertEquals(0.4f, restoredRunning.update(), 0.0001f);
+		assertEquals(0.65f, restoredPaused.update(), 0.0001f);
+		assertEquals(0.9f, codec.restored.get(2).update(), 0.0001f);
+	}
+
+	@Test
+	public void testRestoreDelayedAnimation() throws IOException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		controller.add(500, new TestAnimation(1000, null));
+		controller.advance(200, 10);
+
+		TestCodec codec = new TestCodec();
+		byte[] snapshot = writeSnapshot(controller, codec);
+
+		Ani restoredController = new Ani(new ManualClock(10000));
+		restoredController.readSnapshot(new DataInputStream(new ByteArrayInputStream(snapshot)), codec);
+
+		BaseAnimation restored = codec.restored.get(0);
+		assertEquals(false, restored.hasStarted());
+		restoredController.advance(299, 1);
+		assertEquals(false, restored.hasStarted());
+		restoredController.advance(1, 1);
+		assertEquals(true, restored.hasStarted());
+	}
+
+	@Test
+	public void testCountsOnlyAddedAnimations() throws IOException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		for (int i = 0; i < 4; i++) {
+			controller.add(new TestAnimation(1000, null));
+		}
+		controller.advance(100, 10);
+
+		// drops every second animation
+		final int[] reads = new int[1];
+		TestCodec codec = new TestCodec() {
+			@Override
+			public BaseAnimation readPayload(int pTypeId, DataInput pInput) throws IOException {
+				BaseAnimation animation = super.readPayload(pTypeId, pInput);
+				return reads[0]++ % 2 == 0 ? animation : null;
+			}
+		};
+		byte[] snapshot = writeSnapshot(controller, codec);
+
+		// an input that can not skip
+		InputStream input = new ByteArrayInputStream(snapshot) {
+			@Override
+			public synchronized long skip(long pCount) {
+				return 0;
+			}
+		};
+		Ani restoredController = new Ani(new ManualClock());
+		assertEquals(2, restoredController.readSnapshot(new DataInputStream(input), codec));
+		assertEquals(2, restoredController.getAnimationCount());
+
+		Ani disabledController = new Ani(new ManualClock()).setEnabled(false);
+		reads[0] = 0;
+		assertEquals(0, disabledController.readSnapshot(
+				new DataInputStream(new ByteArrayInputStream(snapshot)), codec));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectInvalidInput() throws IOException {
+		new Ani().readSnapshot(new DataInputStream(new ByteArrayInputStream(new byte[8])), new TestCodec());
+	}
+}
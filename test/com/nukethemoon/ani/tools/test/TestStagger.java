@@ -0,0 +1,89 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.StaggerAnimation;
+import com.nukethemoon.tools.ani.StaggerOffset;
+import com.nukethemoon.tools.ani.StaggerOffsets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests staggered animations of many items.
+ */
+public class TestStagger {
+
+	private static class RecordingStagger extends StaggerAnimation {
+
+		private final float[] progress;
+		private int calls;
+
+		RecordingStagger(int pItemCount, StaggerOffset pOffset) {
+			super(pItemCount, 100, 10, pOffset);
+			progress = new float[pItemCount];
+		}
+
+		@Override
+		protected void onItemProgress(int pIndex, float pProgress) {
+			progress[pIndex] = pProgress;
+			calls++;
+		}
+	}
+
+	@Test
+	public void testLinearStagger() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingStagger stagger = new RecordingStagger(500, StaggerOffsets.LINEAR);
+		assertEquals(100 + 499 * 10, stagger.getDurationMillis());
+		controller.add(stagger);
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals(500, stagger.calls);
+
+		clock.advance(50);
+		controller.update();
+		assertEquals(0.5f, stagger.progress[0], 0.0001f);
+		assertEquals(0.1f, stagger.progress[4], 0.0001f);
+		assertEquals(0.0f, stagger.progress[5], 0.0f);
+		// only the first five items changed
+		assertEquals(505, stagger.calls);
+
+		// a coarse jump still ends every item with 1.0
+		clock.advance(10000);
+		controller.update();
+		for (int i = 0; i < 500; i++) {
+			assertEquals(1.0f, stagger.progress[i], 0.0f);
+		}
+		assertEquals(true, stagger.isFinished());
+	}
+
+	@Test
+	public void testOffsets() {
+		assertEquals(2.0f, StaggerOffsets.FROM_CENTER.getOffset(0, 5), 0.0f);
+		assertEquals(0.0f, StaggerOffsets.FROM_CENTER.getOffset(2, 5), 0.0f);
+		assertEquals(0.5f, StaggerOffsets.FROM_CENTER.getOffset(1, 4), 0.0f);
+
+		StaggerOffset grid = StaggerOffsets.grid(4);
+		assertEquals(0.0f, grid.getOffset(0, 16), 0.0f);
+		assertEquals(3.0f, grid.getOffset(3, 16), 0.0f);
+		assertEquals(5.0f, StaggerOffsets.grid(4, 0, 0).getOffset(4 * 4 + 3, 20), 0.0f);
+
+		RecordingStagger stagger = new RecordingStagger(5, StaggerOffsets.FROM_CENTER);
+		assertEquals(120, stagger.getDurationMillis());
+		assertEquals(20.0f, stagger.getItemOffsetMillis(4), 0.0f);
+	}
+
+	@Test
+	public void testLoopRestartsItems() {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		RecordingStagger stagger = new RecordingStagger(3, StaggerOffsets.LINEAR);
+		stagger.setLoopLength(1);
+		controller.add(stagger);
+		clock.advance(130);
+		controller.update();
+		assertEquals(0.1f, stagger.progress[0], 0.0001f);
+		assertEquals(0.0f, stagger.progress[2], 0.0f);
+	}
+}
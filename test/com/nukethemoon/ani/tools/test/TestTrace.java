@@ -0,0 +1,107 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.AnimationTracer;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.jfr.JfrTracer;
+import com.nukethemoon.tools.ani.trace.RingBufferTracer;
+import com.nukethemoon.tools.ani.trace.TraceReader;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the memory mapped trace of animation events.
+ */
+public class TestTrace {
+
+	@Test
+	public void testTraceAnimationEvents() throws IOException {
+		File file = File.createTempFile("ani", ".trace");
+		file.deleteOnExit();
+		RingBufferTracer tracer = new RingBufferTracer(file, 1024);
+		TestAnimation animation = new TestAnimation(100, new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) { }
+		});
+		try {
+			Ani controller = new Ani(new ManualClock()).setTracer(tracer);
+			// a controller without tracer must not write into the trace
+			Ani otherController = new Ani(new ManualClock());
+			otherController.add(new TestAnimation(50, null));
+
+			animation.setLoopLength(1);
+			controller.add(animation);
+			for (int i = 0; i < 30; i++) {
+				controller.advance(10, 10);
+				otherController.advance(10, 10);
+			}
+			assertEquals(0, controller.getAnimationCount());
+		} finally {
+			tracer.close();
+		}
+
+		TraceReader reader = new TraceReader(file);
+		assertEquals(tracer.getWriteCount(), reader.getRecordCount());
+		assertEquals(AnimationTracer.EVENT_START, reader.getEvent(0));
+
+		int loops = 0;
+		int finishes = 0;
+		int listenerCalls = 0;
+		for (int i = 0; i < reader.getRecordCount(); i++) {
+			int event = reader.getEvent(i);
+			switch (event) {
+				case AnimationTracer.EVENT_LOOP: loops++; break;
+				case AnimationTracer.EVENT_FINISH: finishes++; break;
+				case AnimationTracer.EVENT_LISTENER_BEGIN: listenerCalls++; break;
+				default: break;
+			}
+			if (event != AnimationTracer.EVENT_FRAME_BEGIN && event != AnimationTracer.EVENT_FRAME_END) {
+				assertEquals(animation.getId(), reader.getAnimationId(i));
+			}
+			if (i > 0) {
+				assertEquals(true, reader.getTimeNanos(i) >= reader.getTimeNanos(i - 1));
+			}
+		}
+		assertEquals(1, loops);
+		assertEquals(1, finishes);
+		assertEquals(1, listenerCalls);
+
+		StringWriter json = new StringWriter();
+		reader.writeChromeTrace(json);
+		assertEquals(true, json.toString().startsWith("{\"traceEvents\":["));
+	}
+
+	@Test
+	public void testRingBufferKeepsNewestRecords() throws IOException {
+		File file = File.createTempFile("ani", ".trace");
+		file.deleteOnExit();
+		RingBufferTracer tracer = new RingBufferTracer(file, 4);
+		for (int i = 0; i < 10; i++) {
+			tracer.trace(AnimationTracer.EVENT_PROGRESS, null, i);
+		}
+		tracer.close();
+
+		TraceReader reader = new TraceReader(file);
+		assertEquals(4, reader.getRecordCount());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(6 + i, reader.getValue(i), 0.0f);
+		}
+	}
+
+	@Test
+	public void testJfrTracerCanBeInstalledOnEveryVersion() {
+		Ani controller = new Ani(new ManualClock()).setTracer(new JfrTracer());
+		TestAnimation animation = new TestAnimation(50, null);
+		controller.add(animation);
+		controller.advance(100, 10);
+		assertEquals(true, animation.isFinished());
+	}
+}
@@ -0,0 +1,80 @@
+package com.nukethemoon.ani.tools.test;
+
+import com.nukethemoon.ani.tools.test.animation.TestAnimation;
+import com.nukethemoon.tools.ani.Ani;
+import com.nukethemoon.tools.ani.AnimationFinishedListener;
+import com.nukethemoon.tools.ani.BaseAnimation;
+import com.nukethemoon.tools.ani.ManualClock;
+import com.nukethemoon.tools.ani.PropertyAnimation;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests animations with weakly referenced targets.
+ */
+public class TestWeakTarget {
+
+	public static class Sprite {
+
+		private float alpha;
+
+		public void setAlpha(float pAlpha) {
+			alpha = pAlpha;
+		}
+	}
+
+	private static boolean collect(WeakReference<?> pReference) throws InterruptedException {
+		for (int i = 0; i < 50 && pReference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		return pReference.get() == null;
+	}
+
+	@Test
+	public void testCollectedTargetCancelsAnimations() throws InterruptedException {
+		ManualClock clock = new ManualClock();
+		Ani controller = new Ani(clock);
+		final int[] finishedCalls = new int[1];
+		AnimationFinishedListener listener = new AnimationFinishedListener() {
+			@Override
+			public void onAnimationFinished(BaseAnimation pAnimation) {
+				finishedCalls[0]++;
+			}
+		};
+
+		Sprite sprite = new Sprite();
+		WeakReference<Sprite> spriteReference = new WeakReference<Sprite>(sprite);
+		controller.add(new TestAnimation(100, listener).loopInfinite().setWeakTarget(sprite));
+		controller.add(PropertyAnimation.of(sprite, "alpha", 0.0f, 1.0f, 1000).setWeakTarget(sprite));
+		controller.add(new TestAnimation(100, listener).loopInfinite());
+		controller.advance(50, 10);
+		assertEquals(0.05f, sprite.alpha, 0.0001f);
+		assertEquals(3, controller.getAnimationCount());
+		// weak targets are not part of the target groups
+		assertEquals(0, controller.getAnimationCountByTarget(sprite));
+
+		sprite = null;
+		if (!collect(spriteReference)) {
+			// the garbage collector did not run
+			return;
+		}
+		controller.advance(10, 10);
+		assertEquals(1, controller.getAnimationCount());
+		assertEquals(0, finishedCalls[0]);
+	}
+
+	@Test
+	public void testStrongTargetIsKept() {
+		Ani controller = new Ani(new ManualClock());
+		Sprite sprite = new Sprite();
+		BaseAnimation animation = new TestAnimation(100, null).setWeakTarget(sprite);
+		assertEquals(sprite, animation.getTarget());
+		animation.setTarget(sprite);
+		controller.add(animation);
+		assertEquals(1, controller.getAnimationCountByTarget(sprite));
+	}
+}